@@ -0,0 +1,54 @@
+package se.solrike.otsswinfo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import se.solrike.otsswinfo.impl.ArtifactMetadata;
+import se.solrike.otsswinfo.impl.SyntheticDependencies;
+
+/**
+ * Decide if the version of every dependency is stable, like when the latest versions are filtered.
+ *
+ * @author Lucas Persson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IsStableDefaultBenchmark {
+
+  @Param({ "100", "1000", "10000" })
+  public int size;
+
+  private String[] mVersions;
+
+  @Setup
+  public void setup() {
+    List<ArtifactMetadata> dependencies = SyntheticDependencies.create(size);
+    mVersions = dependencies.stream().map(metadata -> metadata.version).toArray(String[]::new);
+  }
+
+  @Benchmark
+  public void isStable(Blackhole blackhole) {
+    for (String version : mVersions) {
+      blackhole.consume(IsStableDefault.isStable(version));
+    }
+  }
+
+  @Benchmark
+  public void isStableClosure(Blackhole blackhole) {
+    for (String version : mVersions) {
+      blackhole.consume(IsStableDefault.isStable.call(version));
+    }
+  }
+
+}
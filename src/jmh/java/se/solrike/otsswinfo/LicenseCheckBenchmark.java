@@ -0,0 +1,60 @@
+package se.solrike.otsswinfo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import se.solrike.otsswinfo.impl.ArtifactMetadata;
+import se.solrike.otsswinfo.impl.SyntheticDependencies;
+
+/**
+ * Check the license of every dependency with the default license lists.
+ *
+ * @author Lucas Persson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LicenseCheckBenchmark {
+
+  @Param({ "100", "1000", "10000" })
+  public int size;
+
+  private LicenseCheckTask mTask;
+
+  @Setup
+  public void setup() {
+    Project project = ProjectBuilder.builder().build();
+    project.getPluginManager().apply(JavaBasePlugin.class);
+    project.getPluginManager().apply(OtsSwInfoPlugin.class);
+    mTask = (LicenseCheckTask) project.getTasks().getByName("licenseCheck");
+    // allow the synthetic licenses that aren't in the default lists so nothing is logged. The SPDX expression is
+    // left out so it is parsed and checked license by license.
+    for (String license : SyntheticDependencies.LICENSES) {
+      if (!license.contains(" OR ")) {
+        mTask.getAllowedLicenses().add(license);
+      }
+    }
+    mTask.loadAllowedLicenses();
+    List<ArtifactMetadata> dependencies = SyntheticDependencies.create(size);
+    dependencies.forEach(metadata -> mTask.mDependencies.put(metadata.artifactName, metadata));
+  }
+
+  @Benchmark
+  public LicenseCheckTask setHasAllowedLicenses() {
+    mTask.setHasAllowedLicenses();
+    return mTask;
+  }
+
+}
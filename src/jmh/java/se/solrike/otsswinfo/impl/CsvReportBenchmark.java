@@ -0,0 +1,64 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Write the version report and the version up-to-date report.
+ *
+ * @author Lucas Persson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvReportBenchmark {
+
+  @Param({ "100", "1000", "10000" })
+  public int size;
+
+  private File mReportsDir;
+  private List<ArtifactMetadata> mDependencies;
+  private final List<String> mExtraVersionInfo = List.of("Product 1.0.0", "Java 11");
+
+  @Setup
+  public void setup() throws IOException {
+    mReportsDir = Files.createTempDirectory("csv-benchmark").toFile();
+    mDependencies = SyntheticDependencies.create(size);
+    for (int i = 0; i < mDependencies.size(); i++) {
+      mDependencies.get(i).newToRelease = i % 2 == 0;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    new File(mReportsDir, CsvVersionReportAction.REPORT_FILE_NAME).delete();
+    new File(mReportsDir, CsvVersionUpToDateReportAction.REPORT_FILE_NAME).delete();
+    mReportsDir.delete();
+  }
+
+  @Benchmark
+  public File versionReport() {
+    return new CsvVersionReportAction().generateReport(",", mReportsDir, mExtraVersionInfo, true, mDependencies);
+  }
+
+  @Benchmark
+  public File versionUpToDateReport() {
+    return new CsvVersionUpToDateReportAction().generateReport(",", mReportsDir, mExtraVersionInfo, mDependencies,
+        Collections.emptyList());
+  }
+
+}
@@ -0,0 +1,59 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Read a previous version report and check if each dependency is new to the release.
+ *
+ * @author Lucas Persson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NewToReleaseHelperBenchmark {
+
+  @Param({ "100", "1000", "10000" })
+  public int size;
+
+  private List<ArtifactMetadata> mDependencies;
+  private String mPreviousReport;
+  private NewToReleaseHelper mHelper;
+
+  @Setup
+  public void setup() {
+    mDependencies = SyntheticDependencies.create(size);
+    mPreviousReport = SyntheticDependencies.previousReport(mDependencies, ",");
+    mHelper = new NewToReleaseHelper(new StringReader(mPreviousReport));
+  }
+
+  /**
+   * Read the report and check all dependencies, like the version report task does.
+   */
+  @Benchmark
+  public void readAndCheck(Blackhole blackhole) {
+    NewToReleaseHelper helper = new NewToReleaseHelper(new StringReader(mPreviousReport));
+    for (ArtifactMetadata metadata : mDependencies) {
+      blackhole.consume(helper.isDependecyNewToRelease(metadata));
+    }
+  }
+
+  @Benchmark
+  public void check(Blackhole blackhole) {
+    for (ArtifactMetadata metadata : mDependencies) {
+      blackhole.consume(mHelper.isDependecyNewToRelease(metadata));
+    }
+  }
+
+}
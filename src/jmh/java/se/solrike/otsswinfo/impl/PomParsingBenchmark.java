@@ -0,0 +1,122 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parse POM files. Every tenth POM is a large BOM-like POM with the license info last and the other POMs are typical
+ * library POMs.
+ *
+ * @author Lucas Persson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PomParsingBenchmark {
+
+  @Param({ "100", "1000", "10000" })
+  public int size;
+
+  private File mPomDir;
+  private final List<File> mPomFiles = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    mPomDir = Files.createTempDirectory("pom-benchmark").toFile();
+    List<ArtifactMetadata> dependencies = SyntheticDependencies.create(size);
+    for (int i = 0; i < dependencies.size(); i++) {
+      ArtifactMetadata metadata = dependencies.get(i);
+      File pomFile = new File(mPomDir, metadata.name + ".pom");
+      String pom = i % 10 == 0 ? bomPom(metadata, 500) : libraryPom(metadata);
+      Files.write(pomFile.toPath(), pom.getBytes(StandardCharsets.UTF_8));
+      mPomFiles.add(pomFile);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    mPomFiles.forEach(File::delete);
+    mPomDir.delete();
+  }
+
+  @Benchmark
+  public void parsePom(Blackhole blackhole) {
+    for (File pomFile : mPomFiles) {
+      blackhole.consume(ArtifactMetadataUtil.parsePom(pomFile));
+    }
+  }
+
+  private static String libraryPom(ArtifactMetadata metadata) {
+    StringBuilder pom = header(metadata);
+    pom.append("  <name>").append(metadata.name).append("</name>\n");
+    pom.append("  <description>").append(metadata.description).append("\n    on two lines</description>\n");
+    pom.append("  <url>").append(metadata.url).append("</url>\n");
+    licenses(pom, metadata);
+    pom.append("  <dependencies>\n");
+    for (int i = 0; i < 10; i++) {
+      dependency(pom, i);
+    }
+    pom.append("  </dependencies>\n");
+    return pom.append("</project>\n").toString();
+  }
+
+  private static String bomPom(ArtifactMetadata metadata, int noofManagedDependencies) {
+    StringBuilder pom = header(metadata);
+    pom.append("  <packaging>pom</packaging>\n");
+    pom.append("  <dependencyManagement>\n    <dependencies>\n");
+    for (int i = 0; i < noofManagedDependencies; i++) {
+      dependency(pom, i);
+    }
+    pom.append("    </dependencies>\n  </dependencyManagement>\n");
+    pom.append("  <description>").append(metadata.description).append("</description>\n");
+    pom.append("  <url>").append(metadata.url).append("</url>\n");
+    licenses(pom, metadata);
+    return pom.append("</project>\n").toString();
+  }
+
+  private static StringBuilder header(ArtifactMetadata metadata) {
+    StringBuilder pom = new StringBuilder();
+    pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"")
+        .append(" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+        .append(" xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0")
+        .append(" https://maven.apache.org/xsd/maven-4.0.0.xsd\">\n");
+    pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+    pom.append("  <parent>\n    <groupId>com.example</groupId>\n    <artifactId>parent</artifactId>\n")
+        .append("    <version>1.0.0</version>\n  </parent>\n");
+    pom.append("  <groupId>").append(metadata.group).append("</groupId>\n");
+    pom.append("  <artifactId>").append(metadata.name).append("</artifactId>\n");
+    pom.append("  <version>").append(metadata.version).append("</version>\n");
+    return pom;
+  }
+
+  private static void licenses(StringBuilder pom, ArtifactMetadata metadata) {
+    pom.append("  <licenses>\n    <license>\n");
+    pom.append("      <name>").append(metadata.license.replace("&", "&amp;")).append("</name>\n");
+    pom.append("      <url>").append(metadata.licenseUrl).append("</url>\n");
+    pom.append("      <distribution>repo</distribution>\n    </license>\n  </licenses>\n");
+  }
+
+  private static void dependency(StringBuilder pom, int i) {
+    pom.append("      <dependency>\n        <groupId>com.example.managed</groupId>\n")
+        .append("        <artifactId>managed-").append(i).append("</artifactId>\n")
+        .append("        <version>1.0.").append(i).append("</version>\n      </dependency>\n");
+  }
+
+}
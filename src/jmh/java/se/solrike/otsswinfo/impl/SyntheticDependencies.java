@@ -0,0 +1,179 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.ResolvedModuleVersion;
+
+/**
+ * Synthetic dependency sets for the benchmarks. The same size always gives the same dependencies.
+ *
+ * @author Lucas Persson
+ */
+public class SyntheticDependencies {
+
+  public static final String[] LICENSES = { "The Apache Software License, Version 2.0", "Apache License, Version 2.0",
+      "MIT License", "Eclipse Public License - v 1.0", "EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0",
+      "BSD 3-Clause", "GNU Lesser General Public License", "CDDL + GPLv2 with classpath exception" };
+
+  public static final String[] VERSIONS = { "1.0.0", "2.13.3", "5.3.19", "31.1-jre", "1.7.36", "4.1.77.Final",
+      "2.0.0-M1", "3.0.0-alpha-2", "1.2.3.RELEASE", "9.4.46.v20220331", "1.0.0-rc1", "2.0.0.Final" };
+
+  private SyntheticDependencies() {
+  }
+
+  /**
+   * @param size
+   *          number of dependencies
+   * @return dependencies with metadata in a dependency graph where each dependency depends on the next one in the same
+   *         group of ten and the first in each group is a first level dependency
+   */
+  public static List<ArtifactMetadata> create(int size) {
+    List<SyntheticResolvedDependency> nodes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      nodes.add(new SyntheticResolvedDependency("com.example.group" + (i / 10), "artifact-" + i,
+          VERSIONS[i % VERSIONS.length]));
+    }
+    for (int i = 0; i < size; i++) {
+      if (i % 10 != 9 && i + 1 < size) {
+        nodes.get(i).mChildren.add(nodes.get(i + 1));
+        nodes.get(i + 1).mParents.add(nodes.get(i));
+      }
+    }
+    List<ResolvedDependency> firstLevel = new ArrayList<>();
+    for (int i = 0; i < size; i += 10) {
+      firstLevel.add(nodes.get(i));
+    }
+    DependencyGraph graph = DependencyGraph.of(firstLevel, new StringPool());
+    List<ArtifactMetadata> dependencies = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ArtifactMetadata metadata = new ArtifactMetadata(graph, i + 1);
+      metadata.license = LICENSES[i % LICENSES.length];
+      metadata.licenseUrl = "https://example.com/licenses/" + (i % LICENSES.length);
+      metadata.url = "https://example.com/" + metadata.name;
+      metadata.description = "Synthetic dependency number " + i + ", with a \"quoted\" word";
+      metadata.latestVersion = i % 3 == 0 ? metadata.version : "99.0.0";
+      metadata.isTooOldVersion = i % 3 != 0;
+      dependencies.add(metadata);
+    }
+    return dependencies;
+  }
+
+  /**
+   * @param dependencies
+   *          the dependencies in this release
+   * @param separator
+   *          CSV separator
+   * @return a previous version report where every other dependency has another version
+   */
+  public static String previousReport(List<ArtifactMetadata> dependencies, String separator) {
+    StringBuilder report = new StringBuilder("sep=").append(separator).append('\n');
+    report.append("Name").append(separator).append("Version").append(separator).append("Package Name")
+        .append(separator).append("Manufacturer URL").append(separator).append("Description").append(separator)
+        .append("License").append('\n');
+    for (int i = 0; i < dependencies.size(); i++) {
+      ArtifactMetadata metadata = dependencies.get(i);
+      report.append(metadata.name)
+          .append(separator)
+          .append(i % 2 == 0 ? metadata.version : "0.9.0")
+          .append(separator)
+          .append(metadata.group)
+          .append(separator)
+          .append(metadata.url)
+          .append(separator)
+          .append(CsvReportWriter.quote(metadata.description))
+          .append(separator)
+          .append(CsvReportWriter.quote(metadata.license))
+          .append('\n');
+    }
+    return report.toString();
+  }
+
+  /**
+   * Only the identity and the graph are implemented, enough to create a {@link DependencyGraph}.
+   */
+  static class SyntheticResolvedDependency implements ResolvedDependency {
+    private final String mGroup;
+    private final String mName;
+    private final String mVersion;
+    final Set<ResolvedDependency> mChildren = new LinkedHashSet<>();
+    final Set<ResolvedDependency> mParents = new LinkedHashSet<>();
+
+    SyntheticResolvedDependency(String group, String name, String version) {
+      mGroup = group;
+      mName = name;
+      mVersion = version;
+    }
+
+    @Override
+    public String getName() {
+      return mGroup + ":" + mName + ":" + mVersion;
+    }
+
+    @Override
+    public String getModuleGroup() {
+      return mGroup;
+    }
+
+    @Override
+    public String getModuleName() {
+      return mName;
+    }
+
+    @Override
+    public String getModuleVersion() {
+      return mVersion;
+    }
+
+    @Override
+    public String getConfiguration() {
+      return "runtimeClasspath";
+    }
+
+    @Override
+    public ResolvedModuleVersion getModule() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<ResolvedDependency> getChildren() {
+      return mChildren;
+    }
+
+    @Override
+    public Set<ResolvedDependency> getParents() {
+      return mParents;
+    }
+
+    @Override
+    public Set<ResolvedArtifact> getModuleArtifacts() {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public Set<ResolvedArtifact> getAllModuleArtifacts() {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public Set<ResolvedArtifact> getParentArtifacts(ResolvedDependency parent) {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public Set<ResolvedArtifact> getArtifacts(ResolvedDependency parent) {
+      return Collections.emptySet();
+    }
+
+    @Override
+    public Set<ResolvedArtifact> getAllArtifacts(ResolvedDependency parent) {
+      return Collections.emptySet();
+    }
+  }
+
+}
@@ -3,11 +3,24 @@
  */
 package se.solrike.otsswinfo
 
+import java.util.regex.Pattern
+
 /**
  * @author Lucas Persson
  */
 public class IsStableDefault {
 
+  /**
+   * Keywords, in upper case, that indicate a stable version
+   */
+  public static final String[] STABLE_KEYWORDS = ['RELEASE', 'FINAL', 'GA']
+  /**
+   * Regular expression for versions on "semantic version"-ish format
+   */
+  public static final String STABLE_VERSION_REGEX = /^[0-9,.v-]+(-r)?$/
+
+  private static final Pattern STABLE_VERSION_PATTERN = Pattern.compile(STABLE_VERSION_REGEX)
+
   /**
    * Default closure to determine if a version is latest or not.
    * <p>
@@ -33,9 +46,12 @@ public class IsStableDefault {
    * @return true if the version contains a stable keyword. Any of 'RELEASE', 'FINAL', 'GA' (case insensitive).
    */
   public static boolean isStableKeyword(String version) {
-    return ['RELEASE', 'FINAL', 'GA'].any { keyword ->
-      version.toUpperCase().contains(keyword)
+    for (String keyword : STABLE_KEYWORDS) {
+      if (VersionStabilityPolicy.containsIgnoreCase(version, keyword)) {
+        return true
+      }
     }
+    return false
   }
 
   /**
@@ -44,7 +60,6 @@ public class IsStableDefault {
    * @return true if the version is on "semantic version"-ish format.
    */
   public static boolean isStableVersion(String version) {
-    String regex = /^[0-9,.v-]+(-r)?$/
-    return (version ==~ regex)
+    return STABLE_VERSION_PATTERN.matcher(version).matches()
   }
 }
@@ -1,77 +1,254 @@
 package se.solrike.otsswinfo.impl
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.stream.Stream
+
+import javax.xml.stream.XMLStreamException
+
+import org.gradle.api.GradleException
 import org.gradle.api.Project
 import org.gradle.api.artifacts.Configuration
 import org.gradle.api.artifacts.Dependency
-import org.gradle.api.artifacts.ResolveException
-
-import groovy.xml.XmlSlurper
-import groovy.xml.slurpersupport.GPathResult
+import org.gradle.api.artifacts.LenientConfiguration
+import org.gradle.api.artifacts.ModuleVersionIdentifier
+import org.gradle.api.artifacts.ResolvedArtifact
+import org.gradle.api.artifacts.UnresolvedDependency
 
 /**
  * @author Lucas Persson
  */
 class ArtifactMetadataUtil {
 
+  /**
+   * Max number of levels in a parent POM chain to follow. Protects against cyclic parent POMs.
+   */
+  static final int MAX_PARENT_DEPTH = 32
+
+  /**
+   * Find all dependencies meta data like license info etc from the Maven POM files.
+   * <p>
+   * The POMs are resolved level by level in the parent chain. All POMs on the same level are resolved together.
+   *
+   * @param artifacts artifact meta data with the GAV (group:moduleName:version) set
+   * @param pomMetadataService service with already parsed POM files
+   * @param metrics optional metrics to count the POMs and time the resolution in
+   * @param parallel true if the POMs shall be parsed concurrently
+   */
+  public static void updateArtifactMetadata(Project project, Collection<ArtifactMetadata> artifacts,
+      PomMetadataService pomMetadataService, TaskMetrics metrics = null, boolean parallel = false) {
+    updateByLevel(project, artifacts.collect { [it.artifactName, it] }, pomMetadataService, metrics, parallel)
+  }
+
   /**
    * Find all dependencies meta data like license info etc from the Maven POM file.
    *
    * @param artifactName on format group:moduleName:version
+   * @deprecated resolves the POMs one artifact at the time and without the shared cache. Use
+   *             {@link #updateArtifactMetadata(Project, Collection, PomMetadataService, TaskMetrics, boolean)} instead.
    */
+  @Deprecated
   public static ArtifactMetadata updateArtifactMetadataRecursive(Project project, String artifactName,
       ArtifactMetadata artifactMetadata) {
-    Dependency d = project.dependencies.create("$artifactName@pom")
-    Configuration pomConfiguration = project.configurations.detachedConfiguration(d)
-
-    File pomFile
-    try {
-      pomFile = pomConfiguration.resolve().asList().first() // will only be one file in the list
-    } catch (ResolveException e) {
-      project.logger.warn("Unable to retrieve license for $artifactName since the configuration for the POM file could not be resolved.", e)
-      return artifactMetadata
-    }
+    updateByLevel(project, [[artifactName, artifactMetadata]], null, null, false)
+    return artifactMetadata
+  }
 
-    XmlSlurper slurper = new XmlSlurper(true, false)
-    slurper.setErrorHandler(new org.xml.sax.helpers.DefaultHandler())
+  /**
+   * @param pomAndArtifacts pairs of the POM's GAV to start from and the artifact meta data to update
+   * @param pomMetadataService service with already parsed POM files or null to always read the POMs
+   */
+  private static void updateByLevel(Project project, List<List> pomAndArtifacts,
+      PomMetadataService pomMetadataService, TaskMetrics metrics, boolean parallel) {
 
-    GPathResult pomXml
-    try {
-      pomXml = slurper.parse(pomFile)
-    } catch (org.xml.sax.SAXParseException e) {
-      project.logger.warn("Unable to parse POM file for $artifactName", e)
-      return artifactMetadata
+    // the POM to read next and the artifacts that needs it
+    Map<String, List<ArtifactMetadata>> level = groupByPom(pomAndArtifacts)
+    int depth = 0
+    while (!level.isEmpty() && depth++ < MAX_PARENT_DEPTH) {
+      int resolved = level.size()
+      Map<String, PomMetadata> poms = pomMetadataService == null ? readPomMetadata(project, level.keySet(), metrics,
+          parallel) : pomMetadataService.getPomMetadata(level.keySet(), { Collection<String> gavs ->
+            resolved = gavs.size()
+            return readPomMetadata(project, gavs, metrics, parallel)
+          })
+      metrics?.increment('pomsRequested', level.size())
+      metrics?.increment('pomsResolved', resolved)
+      metrics?.increment('pomCacheHits', level.size() - resolved)
+      metrics?.max('parentChainDepth', depth - 1)
+
+      List<List> nextLevel = []
+      level.each { String gav, List<ArtifactMetadata> artifactsForPom ->
+        PomMetadata pomMetadata = poms.get(gav)
+        if (pomMetadata != null) {
+          artifactsForPom.each { ArtifactMetadata artifactMetadata ->
+            updateArtifactMetadata(artifactMetadata, pomMetadata)
+            if ((artifactMetadata.license == null || artifactMetadata.url == null) && pomMetadata.parent) {
+              // follow the parent to see if there is any license info or URL there
+              // but keep the description from the initial pom
+              nextLevel.add([pomMetadata.parent, artifactMetadata])
+            }
+          }
+        }
+      }
+      level = groupByPom(nextLevel)
     }
+  }
 
+  /**
+   * Update the info that isn't already set in the artifact metadata with the info from a POM.
+   */
+  public static void updateArtifactMetadata(ArtifactMetadata artifactMetadata, PomMetadata pomMetadata) {
     // only set description if it is not set so the actual artifact description is used and not the parent
-    if (!artifactMetadata.description && pomXml.description.text()) {
-      // remove newlines and multiple spaces
-      String desc = pomXml.description.text().trim().replaceAll("\\r?\\n|\\r", " ")
-      desc = desc.replaceAll("\\s+", " ")
-      if (!desc.equals('${project.name}')) {
-        artifactMetadata.description = desc
-      }
+    if (!artifactMetadata.description && pomMetadata.description) {
+      artifactMetadata.description = pomMetadata.description
     }
 
     // only set if not set already
-    if (artifactMetadata.license == null && pomXml.licenses.license.size() > 0) {
-      artifactMetadata.license = pomXml.licenses.license.first().name.text().trim()
-      artifactMetadata.licenseUrl = pomXml.licenses.license.first().url.text().trim()
+    if (artifactMetadata.license == null && pomMetadata.license != null) {
+      artifactMetadata.license = pomMetadata.license
+      artifactMetadata.licenseUrl = pomMetadata.licenseUrl
     }
 
     // only set if not set already
-    if (artifactMetadata.url == null && pomXml.url.text()) {
-      artifactMetadata.url = pomXml.url.text().trim()
+    if (artifactMetadata.url == null && pomMetadata.url) {
+      artifactMetadata.url = pomMetadata.url
+    }
+  }
+
+  // ArtifactMetadata is equal by module name only so it can't be used as key
+  private static Map<String, List<ArtifactMetadata>> groupByPom(List<List> pomAndArtifacts) {
+    Map<String, List<ArtifactMetadata>> byPom = new LinkedHashMap<>()
+    pomAndArtifacts.each { List pomAndArtifact ->
+      byPom.computeIfAbsent(pomAndArtifact[0] as String, { [] }).add(pomAndArtifact[1] as ArtifactMetadata)
+    }
+    return byPom
+  }
+
+  /**
+   * Resolve and parse the POM files for the artifacts.
+   * <p>
+   * The POMs are resolved with as few detached configurations as possible. Since Gradle would do conflict resolution
+   * if the same module is present in several versions those are put in separate configurations.
+   * <p>
+   * The POM files are resolved on the calling thread, since Gradle doesn't allow resolution from other threads, and
+   * optionally parsed concurrently once all are resolved.
+   *
+   * @param artifactNames on format group:moduleName:version
+   * @param metrics optional metrics to time the resolution and parsing in
+   * @param parallel true if the POMs shall be parsed concurrently
+   * @return the metadata in the POMs. POMs that could not be resolved or parsed are missing in the map.
+   */
+  public static Map<String, PomMetadata> readPomMetadata(Project project, Collection<String> artifactNames,
+      TaskMetrics metrics = null, boolean parallel = false) {
+    long start = System.nanoTime()
+    // key is the artifact name
+    Map<String, File> pomFiles = [:]
+    partitionByModule(artifactNames).each { Collection<String> batch ->
+      // key is group:moduleName
+      Map<String, String> artifactNameByModule = batch.collectEntries { [moduleOf(it), it] }
+      Dependency[] deps = batch.collect { project.dependencies.create("$it@pom") } as Dependency[]
+      Configuration pomConfiguration = project.configurations.detachedConfiguration(deps)
+      pomConfiguration.transitive = false
+
+      LenientConfiguration lenient = pomConfiguration.resolvedConfiguration.lenientConfiguration
+      lenient.unresolvedModuleDependencies.each { UnresolvedDependency unresolved ->
+        project.logger.warn("Unable to retrieve license for ${unresolved.selector} since the configuration for the POM file could not be resolved.", unresolved.problem)
+      }
+      lenient.artifacts.each { ResolvedArtifact artifact ->
+        ModuleVersionIdentifier id = artifact.moduleVersion.id
+        String artifactName = artifactNameByModule.get("$id.group:$id.name" as String)
+        if (artifactName != null) {
+          try {
+            pomFiles.put(artifactName, artifact.file)
+          } catch (GradleException e) {
+            project.logger.warn("Unable to retrieve license for $artifactName since the POM file could not be resolved.", e)
+          }
+        }
+      }
+    }
+    long parseStart = System.nanoTime()
+    Map<String, PomMetadata> pomMetadata = new ConcurrentHashMap<>()
+    Stream<Map.Entry<String, File>> toParse = parallel ? pomFiles.entrySet().parallelStream() : pomFiles.entrySet().stream()
+    // the extractor reuses its buffer so it can't be shared between threads, but it is cheap to create. It isn't kept
+    // per thread since the worker threads outlive the build and would keep the plugin's classes loaded.
+    PomExtractor sequentialExtractor = parallel ? null : new PomExtractor()
+    toParse.forEach { Map.Entry<String, File> pomFile ->
+      try {
+        PomExtractor extractor = sequentialExtractor ?: new PomExtractor()
+        pomMetadata.put(pomFile.key, extractor.extract(pomFile.value))
+      } catch (XMLStreamException e) {
+        project.logger.warn("Unable to parse POM file for ${pomFile.key}", e)
+      }
     }
+    metrics?.addTime('pomResolution', parseStart - start)
+    metrics?.addTime('pomParsing', System.nanoTime() - parseStart)
+    metrics?.increment('pomsParsed', pomMetadata.size())
+    return pomMetadata
+  }
 
-    if ((artifactMetadata.license == null || artifactMetadata.url == null) && pomXml.parent.text()) {
-      // follow the parent to see if there is any license info or URL there
-      // but keep the description from the initial pom
-      String parentGroup = pomXml.parent.groupId.text().trim()
-      String parentName = pomXml.parent.artifactId.text().trim()
-      String parentVersion = pomXml.parent.version.text().trim()
+  /**
+   * Resolve the jar files for the artifacts and get their sizes. The jars are resolved in batches in the same way as
+   * the POMs, see {@link #readPomMetadata}.
+   *
+   * @param artifactNames on format group:moduleName:version
+   * @return the size in bytes of the jar files. Artifacts without a jar are missing in the map.
+   */
+  public static Map<String, Long> readJarSizes(Project project, Collection<String> artifactNames) {
+    Map<String, Long> jarSizes = [:]
+    partitionByModule(artifactNames).each { Collection<String> batch ->
+      // key is group:moduleName
+      Map<String, String> artifactNameByModule = batch.collectEntries { [moduleOf(it), it] }
+      Dependency[] deps = batch.collect { project.dependencies.create("$it@jar") } as Dependency[]
+      Configuration jarConfiguration = project.configurations.detachedConfiguration(deps)
+      jarConfiguration.transitive = false
+
+      LenientConfiguration lenient = jarConfiguration.resolvedConfiguration.lenientConfiguration
+      lenient.unresolvedModuleDependencies.each { UnresolvedDependency unresolved ->
+        project.logger.info("Unable to retrieve the jar for ${unresolved.selector}.", unresolved.problem)
+      }
+      lenient.artifacts.each { ResolvedArtifact artifact ->
+        ModuleVersionIdentifier id = artifact.moduleVersion.id
+        String artifactName = artifactNameByModule.get("$id.group:$id.name" as String)
+        if (artifactName != null) {
+          try {
+            jarSizes.put(artifactName, artifact.file.length())
+          } catch (GradleException e) {
+            project.logger.info("Unable to retrieve the jar for $artifactName.", e)
+          }
+        }
+      }
+    }
+    return jarSizes
+  }
 
-      artifactMetadata = updateArtifactMetadataRecursive(project, "$parentGroup:$parentName:$parentVersion", artifactMetadata)
+  /**
+   * Split the artifacts in batches where each module is only present once.
+   *
+   * @param artifactNames on format group:moduleName:version
+   */
+  static List<Collection<String>> partitionByModule(Collection<String> artifactNames) {
+    List<Map<String, String>> batches = []
+    artifactNames.each { String artifactName ->
+      String module = moduleOf(artifactName)
+      Map<String, String> batch = batches.find { !it.containsKey(module) }
+      if (batch == null) {
+        batch = [:]
+        batches.add(batch)
+      }
+      batch.put(module, artifactName)
     }
-    return artifactMetadata
+    return batches.collect { it.values() }
+  }
+
+  private static String moduleOf(String artifactName) {
+    return artifactName.substring(0, artifactName.lastIndexOf(':'))
+  }
+
+  /**
+   * Extract the description, first license, project URL and parent from a POM file.
+   * <p>
+   * The POM is streamed and only read until that info is found.
+   */
+  public static PomMetadata parsePom(File pomFile) {
+    return new PomExtractor().extract(pomFile)
   }
 }
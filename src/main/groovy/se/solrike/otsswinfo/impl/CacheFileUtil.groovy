@@ -0,0 +1,20 @@
+package se.solrike.otsswinfo.impl
+
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+
+/**
+ * @author Lucas Persson
+ */
+class CacheFileUtil {
+
+  /**
+   * Write to a temp file and move it in place so concurrent builds never see a half written file.
+   */
+  public static void writeAtomically(File file, String text) {
+    file.parentFile.mkdirs()
+    File tmpFile = File.createTempFile(file.name, '.tmp', file.parentFile)
+    tmpFile.setText(text, 'UTF-8')
+    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+  }
+}
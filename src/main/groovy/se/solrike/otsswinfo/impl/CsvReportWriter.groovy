@@ -0,0 +1,71 @@
+package se.solrike.otsswinfo.impl
+
+import java.util.function.Function
+
+/**
+ * Buffered writer for CSV reports. The file is opened once and each row is streamed to it.
+ *
+ * @author Lucas Persson
+ */
+class CsvReportWriter implements Closeable {
+
+  private final Writer mWriter
+  private final String mSeparator
+
+  CsvReportWriter(File file, String separator) {
+    file.parentFile.mkdirs()
+    mWriter = file.newWriter()
+    mSeparator = separator
+  }
+
+  /**
+   * Write the line that tells spreadsheet programs which separator that is used.
+   */
+  void writeSeparatorLine() {
+    writeLine("sep=${mSeparator}")
+  }
+
+  void writeLine(String line) {
+    mWriter.write(line)
+    mWriter.write('\n')
+  }
+
+  /**
+   * Write the cells separated with the separator.
+   */
+  void writeRow(List<String> cells) {
+    for (int i = 0; i < cells.size(); i++) {
+      if (i > 0) {
+        mWriter.write(mSeparator)
+      }
+      mWriter.write(cells.get(i))
+    }
+    mWriter.write('\n')
+  }
+
+  /**
+   * Write one row per dependency.
+   *
+   * @param dependencies the dependencies to write
+   * @param toRow gives the cells for a dependency
+   */
+  void writeRows(Iterator<ArtifactMetadata> dependencies, Function<ArtifactMetadata, List<String>> toRow) {
+    while (dependencies.hasNext()) {
+      writeRow(toRow.apply(dependencies.next()))
+    }
+  }
+
+  @Override
+  void close() {
+    mWriter.close()
+  }
+
+  /**
+   * Quote the value and escape " with "" as specified in https://www.ietf.org/rfc/rfc4180.txt
+   *
+   * @return the quoted value. Null is written as an empty quoted value.
+   */
+  static String quote(String value) {
+    return '"' + (value != null ? value.replace('"', '""') : '') + '"'
+  }
+}
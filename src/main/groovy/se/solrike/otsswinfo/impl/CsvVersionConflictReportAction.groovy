@@ -0,0 +1,51 @@
+package se.solrike.otsswinfo.impl
+
+/**
+ * Generate a CSV report with the modules that are found in more than one version
+ *
+ * @author Lucas Persson
+ */
+public class CsvVersionConflictReportAction {
+
+  public static final String REPORT_FILE_NAME = 'JavaVersionConflictReport.csv'
+
+  /**
+   * @param origins the projects' configurations each version is found in
+   * @param jarSizes size in bytes of the jar files. The key in the map is the artifact name in GAV format.
+   */
+  public File generateReport(String separator, File reportsDir, List<String> extraVersionInfo,
+      List<VersionConflicts.Conflict> conflicts, DependencyOrigins origins, Map<String, Long> jarSizes) {
+    File file = new File(reportsDir, REPORT_FILE_NAME)
+
+    new CsvReportWriter(file, separator).withCloseable { CsvReportWriter writer ->
+      writer.writeSeparatorLine()
+      extraVersionInfo.forEach({ extraInfo ->
+        writer.writeLine(extraInfo)
+      })
+      writer.writeLine('')
+      writer.writeRow([
+        'Name',
+        'Package Name',
+        'Version',
+        'Highest',
+        'Origins',
+        'Jar Size'
+      ])
+
+      conflicts.forEach({ VersionConflicts.Conflict conflict ->
+        conflict.dependencies.forEach({ ArtifactMetadata metadata ->
+          Long jarSize = jarSizes.get(metadata.artifactName)
+          writer.writeRow([
+            conflict.name,
+            conflict.group,
+            metadata.version,
+            metadata.is(conflict.highest) ? 'Yes' : 'No',
+            CsvReportWriter.quote(origins.getOrigins(metadata.artifactName).join(' ')),
+            jarSize != null ? jarSize.toString() : ''
+          ])
+        })
+      })
+    }
+    return file
+  }
+}
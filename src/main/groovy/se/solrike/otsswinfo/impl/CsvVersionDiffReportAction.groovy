@@ -0,0 +1,48 @@
+package se.solrike.otsswinfo.impl
+
+/**
+ * Generate a CSV report with the changed dependencies between two releases
+ *
+ * @author Lucas Persson
+ */
+public class CsvVersionDiffReportAction {
+
+  public static final String REPORT_FILE_NAME = 'JavaVersionDiffReport.csv'
+
+  public File generateReport(String separator, File reportsDir, List<String> extraVersionInfo,
+      List<VersionDiff.Entry> entries) {
+    File file = new File(reportsDir, REPORT_FILE_NAME)
+
+    new CsvReportWriter(file, separator).withCloseable { CsvReportWriter writer ->
+      writer.writeSeparatorLine()
+      extraVersionInfo.forEach({ extraInfo ->
+        writer.writeLine(extraInfo)
+      })
+      writer.writeLine('')
+      writer.writeRow([
+        'Name',
+        'Package Name',
+        'Change',
+        'Previous Version',
+        'Version',
+        'Previous License',
+        'License',
+        'License Changed'
+      ])
+
+      entries.forEach({ VersionDiff.Entry entry ->
+        writer.writeRow([
+          entry.name,
+          entry.group,
+          entry.change.toString(),
+          entry.previousVersion ?: '',
+          entry.version ?: '',
+          CsvReportWriter.quote(entry.previousLicense),
+          CsvReportWriter.quote(entry.license),
+          entry.licenseChanged ? 'Yes' : 'No'
+        ])
+      })
+    }
+    return file
+  }
+}
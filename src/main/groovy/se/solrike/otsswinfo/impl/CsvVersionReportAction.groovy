@@ -7,43 +7,71 @@ package se.solrike.otsswinfo.impl
  */
 public class CsvVersionReportAction {
 
-  public File generateReport(String separator, File reportsDir, List<String> extraVersionInfo, boolean includeNewToRelease, List<ArtifactMetadata> dependencies) {
-    reportsDir.mkdirs()
-    File file = new File(reportsDir, "JavaVersionAndLicenseReport.csv")
+  public static final String REPORT_FILE_NAME = 'JavaVersionAndLicenseReport.csv'
 
-    file.write "sep=${separator}\n"
-    extraVersionInfo.forEach({ extraInfo ->
-      file << "$extraInfo\n"
-    })
-    file << '\n'
-    file << "Name${separator}"
-    file << "Version${separator}"
-    file << "Package Name${separator}"
-    file << "Manufacturer URL${separator}"
-    file << "Description${separator}"
-    file << "License${separator}"
-    if (includeNewToRelease) {
-      file << 'New to Release'
-    }
-    file << '\n'
+  public File generateReport(String separator, File reportsDir, List<String> extraVersionInfo, boolean includeNewToRelease, List<ArtifactMetadata> dependencies,
+      DependencyOrigins origins = null) {
+    return generateReport(separator, reportsDir, extraVersionInfo, includeNewToRelease, dependencies.iterator(), origins)
+  }
+
+  /**
+   * Without the optional columns the lines end with a separator, as they always have. With the origin columns there is
+   * no empty "New to Release" column in front of them.
+   *
+   * @param includeNewToRelease if the "New to Release" column is added
+   * @param origins if not null the "Origins" and "Introduced Via" columns are added
+   */
+  public File generateReport(String separator, File reportsDir, List<String> extraVersionInfo, boolean includeNewToRelease, Iterator<ArtifactMetadata> dependencies,
+      DependencyOrigins origins = null) {
+    File file = new File(reportsDir, REPORT_FILE_NAME)
 
-    dependencies.forEach({metadata ->
-      file << "$metadata.artifact.moduleName${separator}"
-      file << "$metadata.artifact.moduleVersion${separator}"
-      file << "$metadata.artifact.moduleGroup${separator}"
-      file << "\"${escape(metadata.url)}\"${separator}"
-      file << "\"${escape(metadata.description)}\"${separator}"
-      file << "\"${escape(metadata.license)}\"${separator}"
+    new CsvReportWriter(file, separator).withCloseable { CsvReportWriter writer ->
+      writer.writeSeparatorLine()
+      extraVersionInfo.forEach({ extraInfo ->
+        writer.writeLine(extraInfo)
+      })
+      writer.writeLine('')
+      List<String> header = [
+        'Name',
+        'Version',
+        'Package Name',
+        'Manufacturer URL',
+        'Description',
+        'License'
+      ]
       if (includeNewToRelease) {
-        file <<  (metadata.newToRelease ? 'Yes' : 'No')
+        header.add('New to Release')
       }
-      file << '\n'
-    })
-    return file
-  }
+      else if (origins == null) {
+        header.add('')
+      }
+      if (origins != null) {
+        header.addAll(['Origins', 'Introduced Via'])
+      }
+      writer.writeRow(header)
 
-  // escape " with "" as specified in https://www.ietf.org/rfc/rfc4180.txt
-  protected String escape(String value) {
-    return (value != null ? value.replace('"', '""') : '')
+      writer.writeRows(dependencies, { ArtifactMetadata metadata ->
+        List<String> row = [
+          metadata.name,
+          metadata.version,
+          metadata.group,
+          CsvReportWriter.quote(metadata.url),
+          CsvReportWriter.quote(metadata.description),
+          CsvReportWriter.quote(metadata.license)
+        ]
+        if (includeNewToRelease) {
+          row.add(metadata.newToRelease ? 'Yes' : 'No')
+        }
+        else if (origins == null) {
+          row.add('')
+        }
+        if (origins != null) {
+          row.add(CsvReportWriter.quote(origins.getOrigins(metadata.artifactName).join(' ')))
+          row.add(CsvReportWriter.quote(origins.getPath(metadata.artifactName).join(' > ')))
+        }
+        return row
+      })
+    }
+    return file
   }
 }
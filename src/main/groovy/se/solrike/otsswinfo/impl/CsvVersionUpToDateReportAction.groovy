@@ -7,60 +7,55 @@ package se.solrike.otsswinfo.impl
  */
 public class CsvVersionUpToDateReportAction {
 
+  public static final String REPORT_FILE_NAME = 'JavaVersionUpToDateReport.csv'
 
   public File generateReport(String separator, File reportsDir, List<String> extraVersionInfo,
       List<ArtifactMetadata> dependencies, Collection<ArtifactMetadata> nonDetermineDependencies) {
-    // calculate max padding
-    int namePadding = 0
-    int versionPadding = 0
-    int groupPadding = 0
-    int latestPadding = 3 // size of Yes
-    dependencies.forEach({ metadata ->
-      namePadding = Math.max(metadata.artifact.moduleName.size(), namePadding)
-      versionPadding = Math.max(metadata.artifact.moduleVersion.size(), versionPadding)
-      groupPadding = Math.max(metadata.artifact.moduleGroup.size(), groupPadding)
-      if (!metadata.latest) {
-        int widht = (metadata.latestVersion ? metadata.latestVersion.size()+5: 0)
-        latestPadding = Math.max(widht, latestPadding)
+    // format the cells once and calculate max padding at the same time
+    List<String> header = ['Name', 'Version', 'Package Name', 'Latest', 'To old']
+    int[] padding = [0, 0, 0, 3, 0] // 3 is the size of Yes
+    List<List<String>> rows = dependencies.collect { ArtifactMetadata metadata ->
+      List<String> row = [
+        metadata.name,
+        metadata.version,
+        metadata.group,
+        (metadata.latest ? 'Yes' : "No - ${metadata.latestVersion}".toString()),
+        getIsTooOldVersion(metadata.isTooOldVersion)
+      ]
+      for (int i = 0; i < padding.length - 1; i++) {
+        padding[i] = Math.max(row[i].size(), padding[i])
       }
-    })
+      return row
+    }
 
     // generate the report
-    reportsDir.mkdirs()
-    File file = new File(reportsDir, "JavaVersionUpToDateReport.csv")
-
-    file.write "sep=${separator}\n"
-    extraVersionInfo.forEach({ extraInfo ->
-      file << "$extraInfo\n"
-    })
-    file << '\n'
+    File file = new File(reportsDir, REPORT_FILE_NAME)
 
-    file << 'Following dependencies could not be analysed:\n'
-    nonDetermineDependencies.forEach({metadata ->
-      file << "${metadata.artifactName}"
-      file << '\n'
-    })
-    file << '\n'
+    new CsvReportWriter(file, separator).withCloseable { CsvReportWriter writer ->
+      writer.writeSeparatorLine()
+      extraVersionInfo.forEach({ extraInfo ->
+        writer.writeLine(extraInfo)
+      })
+      writer.writeLine('')
 
-    file << "Name".padRight(namePadding) + separator
-    file << "Version".padRight(versionPadding) + separator
-    file << "Package Name".padRight(groupPadding) + separator
-    file << "Latest".padRight(latestPadding) + separator
-    file << 'To old'
-    file << '\n'
+      writer.writeLine('Following dependencies could not be analysed:')
+      nonDetermineDependencies.forEach({metadata ->
+        writer.writeLine(metadata.artifactName)
+      })
+      writer.writeLine('')
 
-    dependencies.forEach({ metadata ->
-      file << "${metadata.artifact.moduleName.padRight(namePadding)}${separator}"
-      file << "${metadata.artifact.moduleVersion.padRight(versionPadding)}${separator}"
-      file << "${metadata.artifact.moduleGroup.padRight(groupPadding)}${separator}"
-      String latest = (metadata.latest ? 'Yes' : "No - ${metadata.latestVersion}")
-      file << "${latest.padRight(latestPadding)}${separator}"
-      file << "${getIsTooOldVersion(metadata.isTooOldVersion)}"
-      file << '\n'
-    })
+      writer.writeRow(pad(header, padding))
+      rows.forEach({ row ->
+        writer.writeRow(pad(row, padding))
+      })
+    }
     return file
   }
 
+  private static List<String> pad(List<String> row, int[] padding) {
+    return row.withIndex().collect { String cell, int i -> cell.padRight(padding[i]) }
+  }
+
   static String getIsTooOldVersion(Boolean isTooOldVersion) {
     if (isTooOldVersion != null) {
       return isTooOldVersion ? 'Yes' : 'No'
@@ -0,0 +1,116 @@
+package se.solrike.otsswinfo.impl
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+import java.time.Duration
+
+import groovy.json.JsonException
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+/**
+ * Persistent cache of the latest stable version of modules.
+ * <p>
+ * The answers are only valid for the same policy that determines stable versions and the same set of repositories.
+ * That is captured in a scope key. Entries older than the time to live are ignored. Since builds with different time to
+ * live share the file the entries are only removed from it when they are older than {@link #MAX_AGE}.
+ *
+ * @author Lucas Persson
+ */
+class LatestVersionCache {
+
+  public static final int FORMAT_VERSION = 1
+  public static final String FILE_NAME = 'latestVersionCache.json'
+  /**
+   * Entries older than this are removed from the file. Caps the time to live.
+   */
+  public static final Duration MAX_AGE = Duration.ofDays(30)
+
+  private final File mCacheFile
+  private final String mScope
+  private final long mTtlMillis
+  /**
+   * The key is scope and group:module separated with a space.
+   */
+  private final Map<String, Map> mEntries = new HashMap<>()
+  private final Map<String, Map> mAdded = new HashMap<>()
+
+  LatestVersionCache(File cacheDir, String scope, Duration ttl) {
+    mCacheFile = new File(cacheDir, FILE_NAME)
+    mScope = scope
+    mTtlMillis = ttl.toMillis()
+    mEntries.putAll(read())
+  }
+
+  /**
+   * @param module on format group:module
+   * @return the latest version or null if it isn't cached or it is too old
+   */
+  String get(String module) {
+    Map entry = mEntries.get("$mScope $module" as String)
+    // the JSON parser might give an Integer or a BigDecimal
+    if (entry == null || (entry.timestamp as long) < System.currentTimeMillis() - mTtlMillis) {
+      return null
+    }
+    return entry.version
+  }
+
+  /**
+   * @param module on format group:module
+   * @param latestVersion latest stable version
+   */
+  void put(String module, String latestVersion) {
+    Map entry = [version: latestVersion, timestamp: System.currentTimeMillis()]
+    mEntries.put("$mScope $module" as String, entry)
+    mAdded.put("$mScope $module" as String, entry)
+  }
+
+  /**
+   * Write the cache to disk if anything has been added. Entries written by other builds since the cache was loaded
+   * are kept while entries older than {@link #MAX_AGE} are removed.
+   */
+  void save() {
+    if (mAdded.isEmpty()) {
+      return
+    }
+    Map<String, Map> entries = read()
+    entries.putAll(mAdded)
+    CacheFileUtil.writeAtomically(mCacheFile, JsonOutput.toJson([version: FORMAT_VERSION, entries: entries]))
+    mAdded.clear()
+  }
+
+  /**
+   * Calculate the scope for the cached answers.
+   *
+   * @param policyIdentity identification of the policy that determines stable versions
+   * @param repositories identification of the repositories, e.g. the URLs
+   * @return a hash of the policy and the repositories
+   */
+  static String scopeOf(String policyIdentity, Collection<String> repositories) {
+    String identity = policyIdentity + '\n' + repositories.join('\n')
+    byte[] hash = MessageDigest.getInstance('SHA-256').digest(identity.getBytes(StandardCharsets.UTF_8))
+    return hash.encodeHex().toString().substring(0, 16)
+  }
+
+  protected Map<String, Map> read() {
+    Map<String, Map> entries = new HashMap<>()
+    if (!mCacheFile.isFile()) {
+      return entries
+    }
+    long oldest = System.currentTimeMillis() - MAX_AGE.toMillis()
+    try {
+      Object json = new JsonSlurper().parse(mCacheFile, 'UTF-8')
+      // anything but the expected format is ignored
+      if (json instanceof Map && json.version == FORMAT_VERSION && json.entries instanceof Map) {
+        json.entries.each { String key, Map entry ->
+          if ((entry.timestamp as long) >= oldest) {
+            entries.put(key, entry)
+          }
+        }
+      }
+    } catch (JsonException e) {
+      // a corrupt cache is simply ignored and will be overwritten
+    }
+    return entries
+  }
+}
@@ -1,22 +1,64 @@
 package se.solrike.otsswinfo.impl
 
 /**
+ * Compares the dependencies with a previous version report.
+ * <p>
+ * The previous report is parsed once into a {@link VersionReportIndex} so each dependency can be looked up in constant
+ * time.
+ *
  * @author Lucas Persson
  */
 class NewToReleaseHelper {
 
-  private String mPreviousReport;
+  private final VersionReportIndex mPreviousReport
 
   public NewToReleaseHelper(File previousReportFile) {
-    mPreviousReport = previousReportFile.text;
+    mPreviousReport = VersionReportIndex.read(previousReportFile)
+  }
+
+  public NewToReleaseHelper(Reader previousReport) {
+    mPreviousReport = VersionReportIndex.read(previousReport)
   }
 
   boolean isDependecyNewToRelease(ArtifactMetadata metadata) {
-    return isDependecyNewToRelease(metadata, mPreviousReport)
+    return !mPreviousReport.contains(metadata.group, metadata.name, metadata.version)
   }
 
   static boolean isDependecyNewToRelease(ArtifactMetadata metadata, String previousReport) {
-    String regex = '.*' +  metadata.artifact.moduleName + '.*' + metadata.artifact.moduleVersion + '.*' + metadata.artifact.moduleGroup + '.*'
-    return !(previousReport =~ regex)
+    return new NewToReleaseHelper(new StringReader(previousReport)).isDependecyNewToRelease(metadata)
+  }
+
+  /**
+   * @param dependencies the dependencies in this release
+   * @return GAV of the dependencies in the previous report where no version of the module is in this release. Sorted.
+   */
+  List<String> getRemovedDependencies(Collection<ArtifactMetadata> dependencies) {
+    Set<String> modules = dependencies.collect { moduleOf(it) } as Set
+    List<String> removed = []
+    mPreviousReport.modules.findAll { !modules.contains(it) }.each { String module ->
+      mPreviousReport.getVersions(module).keySet().each { removed.add("${module}:${it}" as String) }
+    }
+    return removed.sort()
+  }
+
+  /**
+   * @param dependencies the dependencies in this release
+   * @return the dependencies that have a higher version than the highest version of the same module in the previous
+   * report, with the previous version as value.
+   */
+  Map<ArtifactMetadata, String> getUpgradedDependencies(Collection<ArtifactMetadata> dependencies) {
+    Map<ArtifactMetadata, String> upgraded = new LinkedHashMap<>()
+    dependencies.each { ArtifactMetadata metadata ->
+      SortedMap<String, String> previousVersions = mPreviousReport.getVersions(moduleOf(metadata))
+      if (!previousVersions.isEmpty()
+          && VersionComparator.INSTANCE.compare(metadata.version, previousVersions.lastKey()) > 0) {
+        upgraded.put(metadata, previousVersions.lastKey())
+      }
+    }
+    return upgraded
+  }
+
+  private static String moduleOf(ArtifactMetadata metadata) {
+    return "${metadata.group}:${metadata.name}"
   }
 }
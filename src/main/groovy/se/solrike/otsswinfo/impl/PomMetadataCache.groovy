@@ -0,0 +1,82 @@
+package se.solrike.otsswinfo.impl
+
+import groovy.json.JsonException
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+/**
+ * Persistent cache of the metadata extracted from Maven POM files.
+ * <p>
+ * The key is the GAV (group:moduleName:version) of the POM. Released versions are immutable so they can be cached
+ * forever. Snapshot versions are never cached.
+ *
+ * @author Lucas Persson
+ */
+class PomMetadataCache {
+
+  public static final int FORMAT_VERSION = 1
+  public static final String FILE_NAME = 'pomMetadataCache.json'
+
+  private final File mCacheFile
+  private final Map<String, PomMetadata> mEntries = new HashMap<>()
+  private boolean mDirty = false
+
+  PomMetadataCache(File cacheDir) {
+    mCacheFile = new File(cacheDir, FILE_NAME)
+    mEntries.putAll(read(mCacheFile))
+  }
+
+  synchronized PomMetadata get(String artifactName) {
+    return mEntries.get(artifactName)
+  }
+
+  synchronized void put(String artifactName, PomMetadata pomMetadata) {
+    if (isCacheable(artifactName)) {
+      mEntries.put(artifactName, pomMetadata)
+      mDirty = true
+    }
+  }
+
+  /**
+   * Write the cache to disk if anything has been added. Entries written by other builds since the cache was loaded
+   * are kept.
+   */
+  synchronized void save() {
+    if (!mDirty) {
+      return
+    }
+    Map<String, PomMetadata> entries = read(mCacheFile)
+    entries.putAll(mEntries)
+
+    Map<String, Object> json = [version: FORMAT_VERSION, entries: entries.collectEntries { gav, pom ->
+        [gav, [description: pom.description, license: pom.license, licenseUrl: pom.licenseUrl, url: pom.url,
+          parent: pom.parent]]
+      }]
+    CacheFileUtil.writeAtomically(mCacheFile, JsonOutput.toJson(json))
+    mDirty = false
+  }
+
+  static boolean isCacheable(String artifactName) {
+    return !artifactName.endsWith('-SNAPSHOT')
+  }
+
+  protected static Map<String, PomMetadata> read(File cacheFile) {
+    Map<String, PomMetadata> entries = new HashMap<>()
+    if (!cacheFile.isFile()) {
+      return entries
+    }
+    try {
+      Object json = new JsonSlurper().parse(cacheFile, 'UTF-8')
+      // anything but the expected format is ignored
+      if (json instanceof Map && json.version == FORMAT_VERSION && json.entries instanceof Map) {
+        json.entries.each { String gav, Map value ->
+          entries.put(gav, new PomMetadata(description: value.description, license: value.license,
+          licenseUrl: value.licenseUrl, url: value.url, parent: value.parent))
+        }
+      }
+    } catch (JsonException e) {
+      // a corrupt cache is simply ignored and will be overwritten
+    }
+    return entries
+  }
+}
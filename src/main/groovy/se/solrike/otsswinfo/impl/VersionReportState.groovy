@@ -0,0 +1,55 @@
+package se.solrike.otsswinfo.impl
+
+import groovy.json.JsonException
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+/**
+ * The metadata read from the POMs, following the parent chain, for each dependency in a previous version report.
+ * <p>
+ * Stored next to the report so the next run only needs to read the POMs for added or changed dependencies.
+ *
+ * @author Lucas Persson
+ */
+class VersionReportState {
+
+  static final int FORMAT_VERSION = 1
+  public static final String FILE_NAME = 'JavaVersionAndLicenseReport.state.json'
+
+  /**
+   * @return map with the artifact name in GAV format as key. Empty if there is no previous state.
+   */
+  public static Map<String, PomMetadata> load(File reportsDir) {
+    Map<String, PomMetadata> state = new HashMap<>()
+    File stateFile = new File(reportsDir, FILE_NAME)
+    if (!stateFile.isFile()) {
+      return state
+    }
+    try {
+      Object json = new JsonSlurper().parse(stateFile, 'UTF-8')
+      // anything but the expected format is ignored
+      if (json instanceof Map && json.version == FORMAT_VERSION && json.dependencies instanceof Map) {
+        json.dependencies.each { String gav, Map value ->
+          state.put(gav, new PomMetadata(description: value.description, license: value.license,
+          licenseUrl: value.licenseUrl, url: value.url))
+        }
+      }
+    } catch (JsonException e) {
+      // a corrupt state just means a full scan
+    }
+    return state
+  }
+
+  /**
+   * @param dependencies the metadata as read from the POMs, i.e. before any additional metadata is applied
+   */
+  public static void save(File reportsDir, Collection<ArtifactMetadata> dependencies) {
+    Map<String, Map> state = new TreeMap<>()
+    dependencies.each { ArtifactMetadata metadata ->
+      state.put(metadata.artifactName, [description: metadata.description, license: metadata.license,
+        licenseUrl: metadata.licenseUrl, url: metadata.url])
+    }
+    CacheFileUtil.writeAtomically(new File(reportsDir, FILE_NAME),
+        JsonOutput.toJson([version: FORMAT_VERSION, dependencies: state]))
+  }
+}
@@ -1,8 +1,5 @@
 package se.solrike.otsswinfo;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.gradle.api.GradleException;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.ListProperty;
@@ -14,6 +11,9 @@ import org.gradle.api.tasks.TaskAction;
 
 import se.solrike.otsswinfo.impl.ArtifactMetadata;
 import se.solrike.otsswinfo.impl.LicenseCheckHelper;
+import se.solrike.otsswinfo.impl.LicenseExpression;
+import se.solrike.otsswinfo.impl.LicenseIndex;
+import se.solrike.otsswinfo.impl.SpdxLicenses;
 
 /**
  * The task will scan all projects runtime dependencies and check licence info.
@@ -97,7 +97,8 @@ public abstract class LicenseCheckTask extends OtsSwInfoBaseTask {
   @Optional
   public abstract Property<Boolean> getIgnoreFailures();
 
-  protected List<String> mLicensesList = new ArrayList<>(4);
+  protected LicenseIndex mAllowedLicenses = new LicenseIndex();
+  protected LicenseIndex mDisallowedLicenses = new LicenseIndex();
 
   @TaskAction
   void run() {
@@ -106,9 +107,9 @@ public abstract class LicenseCheckTask extends OtsSwInfoBaseTask {
 
     scanDependencies();
 
-    loadAllowedLicenses();
+    mMetrics.time("loadAllowedLicenses", this::loadAllowedLicenses);
 
-    setHasAllowedLicenses();
+    mMetrics.time("checkLicenses", this::setHasAllowedLicenses);
 
     long noofDepsWithDisallowedLicense = mDependencies.values()
         .stream()
@@ -118,6 +119,7 @@ public abstract class LicenseCheckTask extends OtsSwInfoBaseTask {
     String resultMessage = String.format("Number of OTS SW with disallowed licenses: %d",
         noofDepsWithDisallowedLicense);
     getLogger().error(resultMessage);
+    writeMetrics();
     if (Boolean.FALSE.equals(getIgnoreFailures().getOrElse(Boolean.FALSE)) && noofDepsWithDisallowedLicense > 0) {
       // fail build
       throw new GradleException(resultMessage);
@@ -126,21 +128,17 @@ public abstract class LicenseCheckTask extends OtsSwInfoBaseTask {
 
   protected void loadAllowedLicenses() {
     LicenseCheckHelper l = new LicenseCheckHelper();
-    mLicensesList.add(l.loadLicenses(getGnuLicenses(), "gnuLicenses.txt"));
-    mLicensesList.add(l.loadLicenses(getPermissiveLicenses(), "permissiveLicenses.txt"));
-    mLicensesList.add(l.loadLicenses(getStrongCopyLeftLicenses(), "strongCopyLeftLicenses.txt"));
-    mLicensesList.add(l.loadLicenses(getWeakCopyLeftLicenses(), "weakCopyLeftLicenses.txt"));
-    mLicensesList.addAll(getAllowedLicenses().get());
+    mAllowedLicenses.addAll(l.loadLicenses(getGnuLicenses(), "gnuLicenses.txt"));
+    mAllowedLicenses.addAll(l.loadLicenses(getPermissiveLicenses(), "permissiveLicenses.txt"));
+    mAllowedLicenses.addAll(l.loadLicenses(getStrongCopyLeftLicenses(), "strongCopyLeftLicenses.txt"));
+    mAllowedLicenses.addAll(l.loadLicenses(getWeakCopyLeftLicenses(), "weakCopyLeftLicenses.txt"));
+    getAllowedLicenses().get().forEach(mAllowedLicenses::add);
+    getDisallowedLicenses().get().forEach(mDisallowedLicenses::add);
   }
 
   protected void setHasAllowedLicenses() {
     for (ArtifactMetadata artifactMetadata : mDependencies.values()) {
-
-      boolean isLicenseApproved = false;
-      for (String licenses : mLicensesList) {
-        isLicenseApproved = isLicenseApproved || safeContains(licenses, artifactMetadata.license);
-      }
-      isLicenseApproved = isLicenseApproved && !getDisallowedLicenses().get().contains(artifactMetadata.license);
+      boolean isLicenseApproved = isLicenseAllowed(artifactMetadata.license);
       artifactMetadata.hasAllowedLicense = isLicenseApproved;
       if (!isLicenseApproved) {
         getLogger().error("Dependency {} has a disallowed license of '{}' from URL: {}", artifactMetadata.artifactName,
@@ -150,8 +148,23 @@ public abstract class LicenseCheckTask extends OtsSwInfoBaseTask {
 
   }
 
-  protected boolean safeContains(String str, String value) {
-    return (value != null && str.contains(value));
+  /**
+   * A license that is explicitly disallowed or allowed as a whole is decided directly. Otherwise the license is parsed
+   * as an SPDX expression, e.g. "EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0", and each license in it is checked.
+   *
+   * @param license
+   *          license name or SPDX expression, might be null
+   * @return true if the license is allowed
+   */
+  protected boolean isLicenseAllowed(String license) {
+    if (license == null || mDisallowedLicenses.contains(license)) {
+      return false;
+    }
+    if (mAllowedLicenses.contains(license)) {
+      return true;
+    }
+    return LicenseExpression.parse(license, SpdxLicenses.getDefault())
+        .isAllowed(name -> mAllowedLicenses.contains(name) && !mDisallowedLicenses.contains(name));
   }
 
 }
@@ -1,24 +1,46 @@
 package se.solrike.otsswinfo;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.gradle.api.DefaultTask;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.repositories.UrlArtifactRepository;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.plugins.JavaBasePlugin;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
-import org.gradle.api.tasks.OutputDirectory;
 
 import se.solrike.otsswinfo.impl.ArtifactMetadata;
 import se.solrike.otsswinfo.impl.ArtifactMetadataUtil;
+import se.solrike.otsswinfo.impl.DependencyGraph;
+import se.solrike.otsswinfo.impl.DependencyOrigins;
+import se.solrike.otsswinfo.impl.DependencyScanService;
+import se.solrike.otsswinfo.impl.PomMetadata;
+import se.solrike.otsswinfo.impl.PomMetadataCache;
+import se.solrike.otsswinfo.impl.PomMetadataService;
+import se.solrike.otsswinfo.impl.StringPool;
+import se.solrike.otsswinfo.impl.TaskMetrics;
+import se.solrike.otsswinfo.impl.VersionSnapshotWriter;
 
 /**
  *
@@ -46,6 +68,37 @@ public abstract class OtsSwInfoBaseTask extends DefaultTask {
   @Optional
   public abstract Property<Boolean> getExcludeOwnGroup();
 
+  /**
+   * The group of the project that applies this plugin.
+   *
+   * @return the group or not present if the project has no group
+   */
+  @Input
+  @Optional
+  public abstract Property<String> getOwnGroup();
+
+  /**
+   * All modules, as GAV (group:artifact:version), in the configurations to scan. Makes the task out of date when the
+   * dependencies change. The POM for a GAV never changes so the GAVs are enough to decide whether the report can be
+   * reused.
+   *
+   * @return sorted list of GAV
+   */
+  @Input
+  public abstract ListProperty<String> getResolvedModules();
+
+  /**
+   * All edges in the resolved dependency graphs of the configurations to scan, on the format
+   * <code>&lt;project path&gt;:&lt;configuration&gt; &lt;from&gt; -&gt; &lt;to&gt;</code>. Makes the task out of date,
+   * and gives another build cache key, when the graph changes without the modules changing, e.g. when a dependency is
+   * moved to another project or configuration or is brought in by another module. The reports' dependency paths,
+   * relationships and origins depend on that.
+   *
+   * @return sorted list of edges
+   */
+  @Input
+  public abstract ListProperty<String> getResolvedGraph();
+
   /**
    *
    * @return list of sub project names to exclude from the scan
@@ -76,12 +129,11 @@ public abstract class OtsSwInfoBaseTask extends DefaultTask {
   public abstract ListProperty<String> getExtraVersionInfo();
 
   /**
-   * The directory where reports will be default generated.
+   * The directory where reports will be default generated. Each task declares its own report file as output.
    *
    * @return the directory
    */
-  @OutputDirectory
-  @Optional
+  @Internal
   public abstract DirectoryProperty getReportsDir();
 
   /**
@@ -130,48 +182,192 @@ public abstract class OtsSwInfoBaseTask extends DefaultTask {
   @Optional
   public abstract MapProperty<String, String> getAdditionalDescriptionMetadata();
 
+  /**
+   * Scan the projects' configurations as one batch instead of one by one. The dependency graphs are walked and the POM
+   * files parsed concurrently and the POM files for all projects are resolved together. Doesn't change the result.
+   * <p>
+   * Default false.
+   *
+   * @return true if the projects shall be scanned in parallel
+   */
+  @Internal
+  public abstract Property<Boolean> getParallelScan();
+
+  /**
+   * Build service with the metadata from already parsed POM files.
+   *
+   * @return the service
+   */
+  @Internal
+  public abstract Property<PomMetadataService> getPomMetadataService();
+
+  /**
+   * Build service with the already scanned configurations.
+   *
+   * @return the service
+   */
+  @Internal
+  public abstract Property<DependencyScanService> getDependencyScanService();
+
   /**
    * The key in the map is the artifact name in GAV format (group:artifact:version).
    */
   protected Map<String, ArtifactMetadata> mDependencies = new HashMap<>();
 
+  /**
+   * The dependencies as scanned, i.e. the metadata read from the POMs but without any additional metadata. The key in
+   * the map is the artifact name in GAV format (group:artifact:version).
+   */
+  protected Map<String, ArtifactMetadata> mScannedDependencies = new HashMap<>();
+
+  /**
+   * The projects' configurations that each dependency is found in and the shortest path that introduces it.
+   */
+  protected DependencyOrigins mOrigins = new DependencyOrigins();
+
+  /**
+   * Metadata read from the POMs by a previous run that can be reused instead of reading the POMs again. The key in the
+   * map is the artifact name in GAV format (group:artifact:version).
+   */
+  protected Map<String, PomMetadata> mPreviousPomMetadata = new HashMap<>();
+
   /**
    * List of all groups to exclude plus optional own group
    */
   protected List<String> mExcludeArtifactGroupsAll;
 
+  /**
+   * Number of dependency graph nodes reached while scanning, including nodes reached again via another path.
+   */
+  protected int mNodesVisited;
+
+  /**
+   * Number of unique dependency graph nodes walked while scanning.
+   */
+  protected int mUniqueNodes;
+
+  /**
+   * Timers and counters for this execution, written to the reports directory when the task is done.
+   */
+  protected TaskMetrics mMetrics = new TaskMetrics();
+
   /**
    * Calculate all artifacts groups to exclude for the report
    */
   @SuppressWarnings("java:S5411")
   protected void initExcludeArtifactGroupsAll() {
     mExcludeArtifactGroupsAll = getExcludeArtifactGroups().get();
-    if (getExcludeOwnGroup().getOrElse(true) && getProject().getGroup() != null) {
+    if (getExcludeOwnGroup().getOrElse(true) && getOwnGroup().isPresent()) {
       mExcludeArtifactGroupsAll = new ArrayList<>(mExcludeArtifactGroupsAll);
-      mExcludeArtifactGroupsAll.add(getProject().getGroup().toString());
+      mExcludeArtifactGroupsAll.add(getOwnGroup().get());
     }
   }
 
   /**
-   * Scan all included dependencies to collect the info into the {@code mDependencies} map.
+   * The root project or the subprojects that are not excluded.
+   *
+   * @return the projects to scan
    */
   @SuppressWarnings("java:S5411")
-  protected void scanDependencies() {
+  protected List<Project> listProjectsToScan() {
     if (getScanRootProject().getOrElse(getProject().getSubprojects().isEmpty())) {
-      collectForRuntimeClasspath(getProject());
+      return List.of(getProject());
     }
-    else {
-      List<String> excludeProjects = getExcludeProjects().get();
-      getProject().getSubprojects().forEach(subProject -> {
-        if (!excludeProjects.contains(subProject.getName())) {
-          collectForRuntimeClasspath(subProject);
+    List<String> excludeProjects = getExcludeProjects().get();
+    return getProject().getSubprojects()
+        .stream()
+        .filter(subProject -> !excludeProjects.contains(subProject.getName()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * List all the modules in the configurations to scan. Resolves the configurations but doesn't walk the dependency
+   * graph or read any POMs.
+   *
+   * @return sorted list with GAV (group:artifact:version) for all modules
+   */
+  protected List<String> listResolvedModules() {
+    Set<String> modules = new TreeSet<>();
+    for (Project project : listProjectsToScan()) {
+      if (project.getPlugins().hasPlugin(JavaBasePlugin.class)) {
+        for (String configuration : getIncludeConfigurations().get()) {
+          project.getConfigurations()
+              .getByName(configuration)
+              .getIncoming()
+              .getResolutionResult()
+              .getAllComponents()
+              .forEach(component -> {
+                ModuleVersionIdentifier id = component.getModuleVersion();
+                if (component.getId() instanceof ModuleComponentIdentifier && id != null) {
+                  modules.add(id.getGroup() + ":" + id.getName() + ":" + id.getVersion());
+                }
+              });
         }
-      });
+      }
     }
+    return new ArrayList<>(modules);
+  }
+
+  /**
+   * List the edges in the dependency graphs of the configurations to scan. Resolves the configurations but doesn't
+   * read any POMs.
+   *
+   * @return sorted list of edges, see {@link #getResolvedGraph()}
+   */
+  protected List<String> listResolvedGraph() {
+    Set<String> edges = new TreeSet<>();
+    for (Project project : listProjectsToScan()) {
+      if (project.getPlugins().hasPlugin(JavaBasePlugin.class)) {
+        for (String configuration : getIncludeConfigurations().get()) {
+          String origin = DependencyOrigins.nameOf(project.getPath(), configuration);
+          project.getConfigurations()
+              .getByName(configuration)
+              .getIncoming()
+              .getResolutionResult()
+              .getAllDependencies()
+              .forEach(dependency -> {
+                String to = dependency instanceof ResolvedDependencyResult
+                    ? nameOf(((ResolvedDependencyResult) dependency).getSelected())
+                    : dependency.getRequested().getDisplayName() + " (unresolved)";
+                edges.add(origin + " " + nameOf(dependency.getFrom()) + " -> " + to);
+              });
+        }
+      }
+    }
+    return new ArrayList<>(edges);
+  }
+
+  private static String nameOf(ResolvedComponentResult component) {
+    ModuleVersionIdentifier id = component.getModuleVersion();
+    if (component.getId() instanceof ModuleComponentIdentifier && id != null) {
+      return id.getGroup() + ":" + id.getName() + ":" + id.getVersion();
+    }
+    // e.g. a project
+    return component.getId().getDisplayName();
+  }
+
+  /**
+   * Scan all included dependencies to collect the info into the {@code mDependencies} map.
+   */
+  protected void scanDependencies() {
+    mMetrics.time("scanDependencies", () -> {
+      if (Boolean.TRUE.equals(getParallelScan().getOrElse(Boolean.FALSE))) {
+        scanInParallel(listProjectsToScan());
+      }
+      else {
+        listProjectsToScan().forEach(this::collectForRuntimeClasspath);
+      }
+    });
+    mMetrics.increment("graphNodesVisited", mNodesVisited);
+    mMetrics.increment("graphUniqueNodes", mUniqueNodes);
+    mMetrics.increment("dependencies", mDependencies.size());
+    getLogger().info("Dependency graph scan: {} nodes visited, {} unique nodes", mNodesVisited, mUniqueNodes);
   }
 
   /**
    * Only collect dependencies if it is a Java project. I.e has the java plugin applied.
+   * <p>
+   * A configuration that has already been scanned by another task in the build is not scanned again.
    *
    * @param project
    *          the gradle multiproject or subproject
@@ -179,56 +375,268 @@ public abstract class OtsSwInfoBaseTask extends DefaultTask {
   protected void collectForRuntimeClasspath(Project project) {
     boolean hasJavaPlugin = project.getPlugins().hasPlugin(JavaBasePlugin.class);
     if (hasJavaPlugin) {
-      getIncludeConfigurations().get()
-          .forEach(configuration -> project.getConfigurations()
-              .getByName(configuration)
-              .getResolvedConfiguration()
-              .getFirstLevelModuleDependencies()
-              .forEach(dep -> collectDependencies(project, dep)));
+      getIncludeConfigurations().get().forEach(configuration -> {
+        List<ArtifactMetadata> scanned = getDependencyScanService().get()
+            .getScan(project.getPath(), configuration, mExcludeArtifactGroupsAll, () -> {
+              mMetrics.increment("configurationsScanned", 1);
+              return scanConfiguration(project, configuration);
+            });
+        mMetrics.increment("configurations", 1);
+        mergeScan(project, configuration, scanned);
+      });
     }
   }
 
   /**
-   * Collect dependencies recursive
+   * Scan the configurations of all the projects as one unit of work.
+   * <p>
+   * Gradle doesn't allow configurations to be resolved from other threads than its own so the configurations are
+   * resolved one by one. Then the dependency graphs are walked concurrently and the POMs for all projects with the same
+   * repositories are resolved in the same batches and parsed concurrently. Configurations that have already been
+   * scanned by another task in the build are not scanned again.
    *
-   * @param project
-   *          the gradle multiproject or subproject
-   * @param resolvedDependency
-   *          resolved dependency
+   * @param projects
+   *          the projects to scan
    */
-  @SuppressWarnings("java:S5411")
-  protected void collectDependencies(Project project, ResolvedDependency resolvedDependency) {
+  protected void scanInParallel(List<Project> projects) {
+    DependencyScanService scanService = getDependencyScanService().get();
+    List<ScanUnit> units = new ArrayList<>();
+    for (Project project : projects) {
+      if (project.getPlugins().hasPlugin(JavaBasePlugin.class)) {
+        for (String configuration : getIncludeConfigurations().get()) {
+          units.add(new ScanUnit(project, configuration,
+              scanService.findScan(project.getPath(), configuration, mExcludeArtifactGroupsAll)));
+        }
+      }
+    }
+    List<ScanUnit> toScan = units.stream().filter(unit -> unit.scanned == null).collect(Collectors.toList());
+    for (ScanUnit unit : toScan) {
+      unit.firstLevelDependencies = resolveConfiguration(unit.project, unit.configuration);
+    }
+    mMetrics.time("walkGraph", () -> toScan.parallelStream()
+        .forEach(unit -> collectDependencies(unit.project, unit.firstLevelDependencies, unit.collected)));
 
-    resolvedDependency.getChildren().forEach(dep -> collectDependencies(project, dep));
+    // the POMs are resolved via the first project of the ones with the same repositories
+    Map<String, List<ScanUnit>> byRepositories = toScan.stream()
+        .collect(Collectors.groupingBy(unit -> repositoriesOf(unit.project), LinkedHashMap::new, Collectors.toList()));
+    byRepositories.values()
+        .forEach(sameRepositories -> updateFromPoms(sameRepositories.get(0).project, sameRepositories.stream()
+            .flatMap(unit -> unit.collected.values().stream())
+            .collect(Collectors.toList()), true));
 
-    if (!resolvedDependency.getModuleGroup().equals(project.getName())
-        && !mExcludeArtifactGroupsAll.contains(resolvedDependency.getModuleGroup())
-        && !mDependencies.containsKey(resolvedDependency.getName())) {
-      mDependencies.put(resolvedDependency.getName(), buildArtifactMetadata(project, resolvedDependency));
+    for (ScanUnit unit : units) {
+      if (unit.scanned == null) {
+        mMetrics.increment("configurationsScanned", 1);
+        unit.scanned = scanService.putScan(unit.project.getPath(), unit.configuration, mExcludeArtifactGroupsAll,
+            new ArrayList<>(unit.collected.values()));
+      }
+      mMetrics.increment("configurations", 1);
+      mergeScan(unit.project, unit.configuration, unit.scanned);
     }
+  }
 
+  /**
+   * Add the scanned dependencies of a configuration to the {@code mScannedDependencies} and {@code mDependencies} maps.
+   * Dependencies already added from another configuration are kept. The configuration is recorded as an origin of all
+   * the dependencies in {@code mOrigins}.
+   *
+   * @param project
+   *          the gradle multiproject or subproject
+   * @param configuration
+   *          name of the configuration
+   * @param scanned
+   *          the dependencies scanned in the configuration
+   */
+  protected void mergeScan(Project project, String configuration, List<ArtifactMetadata> scanned) {
+    mOrigins.add(DependencyOrigins.nameOf(project.getPath(), configuration), scanned);
+    for (ArtifactMetadata metadata : scanned) {
+      mScannedDependencies.putIfAbsent(metadata.artifactName, metadata);
+      if (!mDependencies.containsKey(metadata.artifactName)) {
+        // the scanned metadata is shared with other tasks so use a copy
+        ArtifactMetadata copy = new ArtifactMetadata(metadata);
+        updateFromAdditionalMetadata(copy);
+        mDependencies.put(copy.artifactName, copy);
+      }
+    }
   }
 
   /**
-   * Read any license info, description and project URL in the Maven artifact pom.
+   * @param project
+   *          the gradle multiproject or subproject
+   * @return the project's repositories' names and URLs
+   */
+  protected static String repositoriesOf(Project project) {
+    return project.getRepositories()
+        .stream()
+        .map(repository -> repository instanceof UrlArtifactRepository
+            ? repository.getName() + " " + ((UrlArtifactRepository) repository).getUrl()
+            : repository.getName())
+        .collect(Collectors.joining(","));
+  }
+
+  /**
+   * Collect all dependencies in the configuration and read any license info, description and project URL in the
+   * Maven artifacts' POMs.
    * <p>
    * If license is missing the check the parent's license.
    * <p>
    * If the URL is missing check the parent.
    * <p>
    * Description is only taken from the artifact.
+   * <p>
+   * The POMs are resolved in batches, one batch per level in the parent chain.
    *
    * @param project
-   *          multiproject or subproject
-   * @param artifact
-   *          resolved dependency
-   *
+   *          the gradle multiproject or subproject
+   * @param configuration
+   *          name of the configuration
    * @return artifact meta data with GAV and other info like license text and project URL
    */
-  protected ArtifactMetadata buildArtifactMetadata(Project project, ResolvedDependency artifact) {
-    ArtifactMetadata metadata = new ArtifactMetadata(artifact.getName(), artifact);
-    metadata = ArtifactMetadataUtil.updateArtifactMetadataRecursive(project, artifact.getName(), metadata);
+  protected List<ArtifactMetadata> scanConfiguration(Project project, String configuration) {
+    Map<String, ArtifactMetadata> collected = new LinkedHashMap<>();
+    Set<ResolvedDependency> firstLevelDependencies = resolveConfiguration(project, configuration);
+    mMetrics.time("walkGraph", () -> collectDependencies(project, firstLevelDependencies, collected));
+    updateFromPoms(project, collected.values(), false);
+    return new ArrayList<>(collected.values());
+  }
 
+  /**
+   * Resolve a configuration. Must be called from the task's thread.
+   *
+   * @param project
+   *          the gradle multiproject or subproject
+   * @param configuration
+   *          name of the configuration
+   * @return the first level dependencies
+   */
+  protected Set<ResolvedDependency> resolveConfiguration(Project project, String configuration) {
+    return mMetrics.time("resolveConfigurations", () -> project.getConfigurations()
+        .getByName(configuration)
+        .getResolvedConfiguration()
+        .getFirstLevelModuleDependencies());
+  }
+
+  /**
+   * Read the license info, description and project URL from the POMs, or from the previous run if the info was
+   * complete then. The strings are pooled so equal licenses, URLs and descriptions are only kept once.
+   *
+   * @param project
+   *          the project whose repositories the POMs are resolved from
+   * @param dependencies
+   *          the dependencies to update
+   * @param parallel
+   *          true if the POMs shall be parsed concurrently
+   */
+  protected void updateFromPoms(Project project, Collection<ArtifactMetadata> dependencies, boolean parallel) {
+    List<ArtifactMetadata> toRead = new ArrayList<>();
+    for (ArtifactMetadata metadata : dependencies) {
+      PomMetadata previous = mPreviousPomMetadata.get(metadata.artifactName);
+      // only reuse complete info, the POM or its parent might have been unavailable last time
+      if (previous != null && previous.license != null && previous.url != null
+          && PomMetadataCache.isCacheable(metadata.artifactName)) {
+        ArtifactMetadataUtil.updateArtifactMetadata(metadata, previous);
+      }
+      else {
+        toRead.add(metadata);
+      }
+    }
+    if (!mPreviousPomMetadata.isEmpty()) {
+      getLogger().info("Reused metadata for {} of {} dependencies from the previous run",
+          dependencies.size() - toRead.size(), dependencies.size());
+      mMetrics.increment("pomMetadataReusedFromPreviousRun", dependencies.size() - toRead.size());
+    }
+    mMetrics.time("pomMetadata", () -> ArtifactMetadataUtil.updateArtifactMetadata(project, toRead,
+        getPomMetadataService().get(), mMetrics, parallel));
+    StringPool pool = getDependencyScanService().get().getStringPool();
+    dependencies.forEach(metadata -> metadata.intern(pool));
+  }
+
+  /**
+   * Collect dependencies by copying the dependency graph to a detached {@link DependencyGraph}. Each node in the graph
+   * is only walked once even if it is reached via several paths. The metadata doesn't keep any of Gradle's objects.
+   * <p>
+   * Graphs for different configurations can be walked concurrently.
+   *
+   * @param project
+   *          the gradle multiproject or subproject
+   * @param firstLevelDependencies
+   *          the resolved dependencies to start from
+   * @param collected
+   *          map where the dependencies are added. The key in the map is the artifact name in GAV format.
+   */
+  @SuppressWarnings("java:S5411")
+  protected void collectDependencies(Project project, Set<ResolvedDependency> firstLevelDependencies,
+      Map<String, ArtifactMetadata> collected) {
+
+    DependencyGraph graph = DependencyGraph.of(firstLevelDependencies,
+        getDependencyScanService().get().getStringPool());
+    for (int node = 1; node < graph.size(); node++) {
+      String artifactName = graph.getName(node);
+      if (!graph.getGroup(node).equals(project.getName()) && !mExcludeArtifactGroupsAll.contains(graph.getGroup(node))
+          && !collected.containsKey(artifactName)) {
+        collected.put(artifactName, new ArtifactMetadata(graph, node));
+      }
+    }
+    countNodes(graph.getNodesReached(), graph.size() - 1);
+  }
+
+  private synchronized void countNodes(int nodesVisited, int uniqueNodes) {
+    mNodesVisited += nodesVisited;
+    mUniqueNodes += uniqueNodes;
+  }
+
+  /**
+   * The snapshot files next to a report.
+   *
+   * @param reportFileName
+   *          the CSV report's file name
+   * @param formats
+   *          the snapshot formats
+   * @return one file per format
+   */
+  protected FileCollection snapshotFiles(String reportFileName, Provider<List<String>> formats) {
+    return getProject().files(formats.map(list -> list.stream()
+        .map(format -> getReportsDir().file(VersionSnapshotWriter.fileName(reportFileName, format)).get())
+        .collect(Collectors.toList())));
+  }
+
+  /**
+   * Write a snapshot next to the report in each of the formats.
+   *
+   * @param reportFileName
+   *          the CSV report's file name
+   * @param formats
+   *          the snapshot formats
+   * @param dependencies
+   *          the dependencies to write
+   */
+  protected void writeSnapshots(String reportFileName, List<String> formats,
+      Collection<ArtifactMetadata> dependencies) {
+    for (String format : formats) {
+      File file = new File(getReportsDir().getAsFile().get(), VersionSnapshotWriter.fileName(reportFileName, format));
+      VersionSnapshotWriter.write(file, format, getExtraVersionInfo().get(), dependencies);
+      getLogger().lifecycle("See the {} snapshot at: {}", format, file.getAbsolutePath());
+    }
+  }
+
+  /**
+   * Write the metrics to <code>&lt;task name&gt;-metrics.json</code> in the reports directory and log a summary.
+   */
+  protected void writeMetrics() {
+    File reportsDir = getReportsDir().getAsFile().get();
+    reportsDir.mkdirs();
+    File file = new File(reportsDir, getName() + TaskMetrics.FILE_NAME_SUFFIX);
+    mMetrics.write(file, getPath());
+    getLogger().lifecycle("Metrics for {}: {}", getPath(), mMetrics.getSummary());
+  }
+
+  /**
+   * Compliment the info from the POM with the additional metadata in case the POM lacks info.
+   *
+   * @param metadata
+   *          artifact meta data that will be updated
+   */
+  protected void updateFromAdditionalMetadata(ArtifactMetadata metadata) {
     if (metadata.license == null) {
       metadata.license = getAdditionalLicenseMetadata().get().get(metadata.artifactName);
     }
@@ -238,7 +646,24 @@ public abstract class OtsSwInfoBaseTask extends DefaultTask {
     if (metadata.description == null || metadata.description.equals("")) {
       metadata.description = getAdditionalDescriptionMetadata().get().get(metadata.artifactName);
     }
-    return metadata;
+  }
+
+  /**
+   * A project's configuration to scan.
+   */
+  private static class ScanUnit {
+    final Project project;
+    final String configuration;
+    // null until scanned
+    List<ArtifactMetadata> scanned;
+    Set<ResolvedDependency> firstLevelDependencies;
+    final Map<String, ArtifactMetadata> collected = new LinkedHashMap<>();
+
+    ScanUnit(Project project, String configuration, List<ArtifactMetadata> scanned) {
+      this.project = project;
+      this.configuration = configuration;
+      this.scanned = scanned;
+    }
   }
 
 }
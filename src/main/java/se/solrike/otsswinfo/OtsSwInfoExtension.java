@@ -1,5 +1,7 @@
 package se.solrike.otsswinfo;
 
+import java.time.Duration;
+
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.ListProperty;
@@ -59,6 +61,26 @@ public interface OtsSwInfoExtension {
    */
   RegularFileProperty getPreviousReportFile();
 
+  /**
+   * Only read the POMs for dependencies that are added or changed since the previous run of the version report. The
+   * metadata from the previous run is stored next to the report.
+   * <p>
+   * Default false.
+   *
+   * @return true if the version report shall be generated incrementally
+   */
+  Property<Boolean> getIncrementalVersionReport();
+
+  /**
+   * Add the columns "Origins", the projects' configurations that each dependency is found in, and "Introduced Via",
+   * the shortest dependency path from a direct dependency, to the version report.
+   * <p>
+   * Default false.
+   *
+   * @return true if the version report shall have the origin columns
+   */
+  Property<Boolean> getVersionReportOrigins();
+
   /**
    * The default directory where reports will be generated.
    *
@@ -81,6 +103,16 @@ public interface OtsSwInfoExtension {
    */
   Property<Boolean> getScanRootProject();
 
+  /**
+   * Scan the subprojects as one batch where the dependency graphs are walked and the POMs parsed concurrently and the
+   * POMs for all subprojects are resolved together. Useful for multiprojects with many subprojects.
+   * <p>
+   * Default false.
+   *
+   * @return true if the subprojects shall be scanned in parallel
+   */
+  Property<Boolean> getParallelScan();
+
   /**
    * Closure that takes a version string and return true if it is considered a stable version.
    * <p>
@@ -90,6 +122,16 @@ public interface OtsSwInfoExtension {
    */
   Property<Closure<Boolean>> getIsStable();
 
+  /**
+   * Policy that determines if a version is stable. The rules are compiled once so it is faster than the
+   * {@link #getIsStable()} closure, which is only used if no policy is set.
+   * <p>
+   * Default is {@link VersionStabilityPolicy#defaultPolicy()}
+   *
+   * @return the policy
+   */
+  Property<VersionStabilityPolicy> getVersionStabilityPolicy();
+
   /**
    * File with GNU licenses that are allowed.
    * <p>
@@ -187,4 +229,64 @@ public interface OtsSwInfoExtension {
    * @return the max number of older minor version compared to current stable version.
    */
   Property<Integer> getAllowedOldMinorVersion();
+
+  /**
+   * Number of dependencies to find the latest version for in one resolution. Gradle fetches the metadata for the
+   * dependencies in one resolution in parallel. The parallelism is limited by Gradle's max workers.
+   * <p>
+   * Default 100.
+   *
+   * @return number of dependencies per resolution
+   */
+  Property<Integer> getLatestVersionBatchSize();
+
+  /**
+   * How long the latest version of a dependency is cached in {@link #getCacheDir()}. The cache is shared between builds
+   * and is only valid for the same version stability policy, or {@link #getIsStable()} closure, and the same
+   * repositories.
+   * <p>
+   * Default not set, i.e. no caching.
+   *
+   * @return time to live for cached latest versions
+   */
+  Property<Duration> getLatestVersionCacheTtl();
+
+  /**
+   * How to find the latest version of the dependencies. <code>resolve</code> lets Gradle resolve a dynamic version
+   * which fetches the metadata for each candidate version. <code>mavenMetadata</code> only reads the version listing,
+   * <code>maven-metadata.xml</code>, from the Maven repositories and fetches the POM for the chosen version.
+   * <p>
+   * Default <code>resolve</code>.
+   *
+   * @return the lookup mode
+   */
+  Property<String> getLatestVersionLookup();
+
+  /**
+   * Machine readable snapshots, <code>json</code> and/or <code>cbor</code>, that the report tasks write next to their
+   * CSV reports. The snapshot has all the metadata for the dependencies and their dependency paths.
+   * <p>
+   * Default none.
+   *
+   * @return the snapshot formats
+   */
+  ListProperty<String> getSnapshotFormats();
+
+  /**
+   * The formats the <code>sbomReport</code> task generates, <code>cyclonedx</code> and/or <code>spdx</code>.
+   * <p>
+   * Default both.
+   *
+   * @return the SBOM formats
+   */
+  ListProperty<String> getSbomFormats();
+
+  /**
+   * Directory for persistent caches, e.g. metadata from already parsed POM files.
+   * <p>
+   * Default <code>caches/otsswinfo</code> in the Gradle user home.
+   *
+   * @return the cache directory
+   */
+  DirectoryProperty getCacheDir();
 }
@@ -1,5 +1,6 @@
 package se.solrike.otsswinfo;
 
+import java.io.File;
 import java.util.List;
 
 import org.gradle.api.Plugin;
@@ -7,17 +8,30 @@ import org.gradle.api.Project;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.plugins.ReportingBasePlugin;
 import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.reporting.ReportingExtension;
+import org.gradle.api.tasks.TaskProvider;
 import org.gradle.util.GradleVersion;
 
+import se.solrike.otsswinfo.impl.DependencyScanService;
+import se.solrike.otsswinfo.impl.PomMetadataService;
+import se.solrike.otsswinfo.impl.SbomWriter;
+
 /**
  * @author Lucas Persson
  */
 public class OtsSwInfoPlugin implements Plugin<Project> {
 
   private static final GradleVersion SUPPORTED_VERSION = GradleVersion.version("7.0");
+  private static final GradleVersion CONFIGURATION_CACHE_API_VERSION = GradleVersion.version("7.4");
   public static final String EXTENSION_NAME = "otsSwInfo";
   public static final String REPORTS_SUBDIR = "otsswinfo";
+  public static final String CACHE_SUBDIR = "caches/otsswinfo";
+  public static final String POM_METADATA_SERVICE_NAME = "otsSwInfoPomMetadata";
+  public static final String DEPENDENCY_SCAN_SERVICE_NAME = "otsSwInfoDependencyScan";
+
+  private Provider<PomMetadataService> mPomMetadataService;
+  private Provider<DependencyScanService> mDependencyScanService;
 
   @Override
   public void apply(Project project) {
@@ -28,19 +42,78 @@ public class OtsSwInfoPlugin implements Plugin<Project> {
 
     OtsSwInfoExtension extension = createExtension(project, reportsBaseDir);
 
-    project.getTasks().register("versionReport", VersionReportTask.class, task -> {
-      task.setDescription("Generate a version report for all the dependecies including trasitive dependencies.");
+    mPomMetadataService = project.getGradle()
+        .getSharedServices()
+        .registerIfAbsent(POM_METADATA_SERVICE_NAME, PomMetadataService.class,
+            spec -> spec.getParameters().getCacheDir().set(extension.getCacheDir()));
+    mDependencyScanService = project.getGradle()
+        .getSharedServices()
+        .registerIfAbsent(DEPENDENCY_SCAN_SERVICE_NAME, DependencyScanService.class, spec -> {
+        });
+
+    TaskProvider<VersionReportTask> versionReport = project.getTasks()
+        .register("versionReport", VersionReportTask.class, task -> {
+          task.setDescription("Generate a version report for all the dependecies including trasitive dependencies.");
+          task.getPreviousReportFile().set(extension.getPreviousReportFile());
+          task.getIncremental().set(extension.getIncrementalVersionReport());
+          task.getIncludeOrigins().set(extension.getVersionReportOrigins());
+          task.getSnapshotFormats().set(extension.getSnapshotFormats());
+          updateTask(extension, task);
+          // a snapshot's POM might change without the GAV changing
+          task.getOutputs()
+              .cacheIf("no SNAPSHOT dependencies",
+                  t -> task.getResolvedModules().get().stream().noneMatch(gav -> gav.endsWith("-SNAPSHOT")));
+        });
+
+    project.getTasks().register("versionDiffReport", VersionDiffReportTask.class, task -> {
+      task.setDescription("Generate a report with the dependencies that have changed since the previous release.");
+      task.setGroup("Reports");
       task.getPreviousReportFile().set(extension.getPreviousReportFile());
-      updateTask(extension, task);
+      // map, unlike flatMap, carries the dependency on versionReport since the report file has no producer itself
+      task.getCurrentReportFile().convention(versionReport.map(report -> report.getReportFile().get()));
+      task.getExtraVersionInfo().set(extension.getExtraVersionInfo());
+      task.getReportsDir().set(extension.getReportsDir());
+      task.getReportCsvSeparator().set(extension.getReportCsvSeparator());
     });
 
     project.getTasks().register("versionUpToDateReport", VersionUpToDateReportTask.class, task -> {
       task.setDescription(
           "Generate a version up-to-date report for all the dependecies including trasitive dependencies.");
       task.getIsStable().set(extension.getIsStable());
+      task.getVersionStabilityPolicy().set(extension.getVersionStabilityPolicy());
       task.getAllowedOldMajorVersion().set(extension.getAllowedOldMajorVersion());
       task.getAllowedOldMinorVersion().set(extension.getAllowedOldMinorVersion());
+      task.getLatestVersionBatchSize().set(extension.getLatestVersionBatchSize());
+      task.getLatestVersionCacheTtl().set(extension.getLatestVersionCacheTtl());
+      task.getLatestVersionLookup().set(extension.getLatestVersionLookup());
+      task.getSnapshotFormats().set(extension.getSnapshotFormats());
+      task.getCacheDir().set(extension.getCacheDir());
+      updateTask(extension, task);
+      // new versions might have been released even if the dependencies haven't changed
+      task.getOutputs().upToDateWhen(t -> false);
+    });
+
+    project.getTasks().register("sbomReport", SbomReportTask.class, task -> {
+      task.setDescription("Generate a CycloneDX and/or SPDX SBOM for all the dependencies including transitive "
+          + "dependencies.");
+      task.getSbomFormats().set(extension.getSbomFormats());
+      task.getComponentName().set(project.getName());
+      task.getComponentVersion()
+          .set(project.provider(() -> Project.DEFAULT_VERSION.equals(project.getVersion().toString()) ? null
+              : project.getVersion().toString()));
+      updateTask(extension, task);
+      task.getOutputs()
+          .cacheIf("no SNAPSHOT dependencies",
+              t -> task.getResolvedModules().get().stream().noneMatch(gav -> gav.endsWith("-SNAPSHOT")));
+    });
+
+    project.getTasks().register("versionConflictReport", VersionConflictReportTask.class, task -> {
+      task.setDescription("Generate a report with the dependencies that are resolved to different versions in different "
+          + "projects or configurations.");
       updateTask(extension, task);
+      task.getOutputs()
+          .cacheIf("no SNAPSHOT dependencies",
+              t -> task.getResolvedModules().get().stream().noneMatch(gav -> gav.endsWith("-SNAPSHOT")));
     });
 
     project.getTasks().register("licenseCheck", LicenseCheckTask.class, task -> {
@@ -67,6 +140,10 @@ public class OtsSwInfoPlugin implements Plugin<Project> {
         .listProperty(String.class)
         .convention(List.of("runtimeClasspath"));
     extension.getIncludeConfigurations().set(includeConfigurationsConvention);
+    extension.getSbomFormats().convention(SbomWriter.FORMATS);
+    extension.getCacheDir()
+        .convention(project.getLayout()
+            .dir(project.provider(() -> new File(project.getGradle().getGradleUserHomeDir(), CACHE_SUBDIR))));
     return extension;
   }
 
@@ -80,6 +157,11 @@ public class OtsSwInfoPlugin implements Plugin<Project> {
    */
   protected void updateTask(OtsSwInfoExtension extension, OtsSwInfoBaseTask task) {
     task.setGroup("Reports");
+    Project project = task.getProject();
+    task.getOwnGroup()
+        .set(project.provider(() -> project.getGroup() != null ? project.getGroup().toString() : null));
+    task.getResolvedModules().set(project.provider(task::listResolvedModules));
+    task.getResolvedGraph().set(project.provider(task::listResolvedGraph));
     task.getExcludeArtifactGroups().set(extension.getExcludeArtifactGroups());
     task.getExcludeOwnGroup().set(extension.getExcludeOwnGroup());
     task.getExcludeProjects().set(extension.getExcludeProjects());
@@ -88,9 +170,18 @@ public class OtsSwInfoPlugin implements Plugin<Project> {
     task.getReportsDir().set(extension.getReportsDir());
     task.getReportCsvSeparator().set(extension.getReportCsvSeparator());
     task.getScanRootProject().set(extension.getScanRootProject());
+    task.getParallelScan().set(extension.getParallelScan());
     task.getAdditionalLicenseMetadata().set(extension.getAdditionalLicenseMetadata());
     task.getAdditionalUrlMetadata().set(extension.getAdditionalUrlMetadata());
     task.getAdditionalDescriptionMetadata().set(extension.getAdditionalDescriptionMetadata());
+    task.getPomMetadataService().set(mPomMetadataService);
+    task.usesService(mPomMetadataService);
+    task.getDependencyScanService().set(mDependencyScanService);
+    task.usesService(mDependencyScanService);
+    if (GradleVersion.current().compareTo(CONFIGURATION_CACHE_API_VERSION) >= 0) {
+      task.notCompatibleWithConfigurationCache(
+          "Walks the project's dependencies and resolves POM files with detached configurations at execution time.");
+    }
   }
 
   protected void verifyGradleVersion(GradleVersion version) {
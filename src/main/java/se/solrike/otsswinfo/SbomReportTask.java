@@ -0,0 +1,91 @@
+package se.solrike.otsswinfo;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFiles;
+import org.gradle.api.tasks.TaskAction;
+
+import se.solrike.otsswinfo.impl.ArtifactMetadata;
+import se.solrike.otsswinfo.impl.SbomWriter;
+
+/**
+ * The task will scan all projects runtime dependencies and generate a software bill of materials (SBOM) in CycloneDX
+ * and/or SPDX JSON format with the same metadata as the version report and the dependency relationships.
+ *
+ * @author Lucas Persson
+ */
+@CacheableTask
+public abstract class SbomReportTask extends OtsSwInfoBaseTask {
+
+  /**
+   * The SBOM formats, <code>cyclonedx</code> and/or <code>spdx</code>.
+   * <p>
+   * Default both.
+   *
+   * @return the formats
+   */
+  @Input
+  @Optional
+  public abstract ListProperty<String> getSbomFormats();
+
+  /**
+   * The name of the component the SBOM describes.
+   *
+   * @return the name, e.g. the project's name
+   */
+  @Input
+  public abstract Property<String> getComponentName();
+
+  /**
+   * The version of the component the SBOM describes.
+   *
+   * @return the version, e.g. the project's version
+   */
+  @Input
+  @Optional
+  public abstract Property<String> getComponentVersion();
+
+  /**
+   * The generated SBOMs.
+   *
+   * @return the SBOM files in the reports directory
+   */
+  @OutputFiles
+  public FileCollection getSbomFiles() {
+    return getProject().files(getSbomFormats().map(formats -> formats.stream()
+        .map(format -> getReportsDir().file(SbomWriter.fileName(format)).get())
+        .collect(Collectors.toList())));
+  }
+
+  @TaskAction
+  void run() {
+
+    initExcludeArtifactGroupsAll();
+
+    scanDependencies();
+
+    ArrayList<ArtifactMetadata> deps = new ArrayList<>(mDependencies.values());
+    Collections.sort(deps);
+    SbomWriter writer = new SbomWriter(getOwnGroup().getOrNull(), getComponentName().get(),
+        getComponentVersion().getOrNull(), deps);
+    List<String> formats = getSbomFormats().get();
+    for (String format : formats) {
+      File file = new File(getReportsDir().getAsFile().get(), SbomWriter.fileName(format));
+      mMetrics.time("generateReport", () -> writer.write(file, format));
+      getLogger().error("See the {} SBOM at: {}", format, file.getAbsolutePath());
+    }
+    getLogger().error("Number of OTS SW: {}", deps.size());
+    writeMetrics();
+  }
+
+}
@@ -0,0 +1,108 @@
+package se.solrike.otsswinfo;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.gradle.api.Project;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import se.solrike.otsswinfo.impl.ArtifactMetadataUtil;
+import se.solrike.otsswinfo.impl.CsvVersionConflictReportAction;
+import se.solrike.otsswinfo.impl.VersionConflicts;
+import se.solrike.otsswinfo.impl.VersionConflicts.Conflict;
+
+/**
+ * The task will scan all projects dependencies and generate a report with the modules that are resolved to different
+ * versions in different projects or configurations, the projects' configurations each version is found in and the size
+ * of the jar files so the footprint of the duplicates can be estimated.
+ *
+ * @author Lucas Persson
+ */
+@CacheableTask
+public abstract class VersionConflictReportTask extends OtsSwInfoBaseTask {
+
+  /**
+   * The generated report.
+   *
+   * @return the report file in the reports directory
+   */
+  @OutputFile
+  public Provider<RegularFile> getReportFile() {
+    return getReportsDir().file(CsvVersionConflictReportAction.REPORT_FILE_NAME);
+  }
+
+  @TaskAction
+  void run() {
+
+    initExcludeArtifactGroupsAll();
+
+    scanDependencies();
+
+    List<Conflict> conflicts = mMetrics.time("findConflicts", () -> VersionConflicts.find(mDependencies.values()));
+    Map<String, Long> jarSizes = mMetrics.time("jarSizes", () -> readJarSizes(conflicts));
+
+    CsvVersionConflictReportAction reportAction = new CsvVersionConflictReportAction();
+    File reportFile = mMetrics.time("generateReport",
+        () -> reportAction.generateReport(getReportCsvSeparator().getOrElse(","), getReportsDir().getAsFile().get(),
+            getExtraVersionInfo().get(), conflicts, mOrigins, jarSizes));
+
+    long duplicateSize = 0;
+    for (Conflict conflict : conflicts) {
+      getLogger().lifecycle("Version conflict: {}:{} in versions {}", conflict.group, conflict.name,
+          conflict.dependencies.stream().map(dependency -> dependency.version).collect(Collectors.joining(", ")));
+      duplicateSize += conflict.getDuplicateSize(jarSizes);
+    }
+    mMetrics.increment("versionConflicts", conflicts.size());
+    getLogger().error("Number of OTS SW with version conflicts: {}, duplicate jar size: {} KiB", conflicts.size(),
+        duplicateSize / 1024);
+    getLogger().error("See the version conflict report at: {}", reportFile.getAbsolutePath());
+    writeMetrics();
+  }
+
+  /**
+   * Get the size of the jar files for all the versions of the conflicting modules. The jars are resolved via the first
+   * project of the scanned projects with the same repositories. Jars that can't be resolved with one project's
+   * repositories are tried with the next projects' repositories.
+   *
+   * @param conflicts
+   *          the modules with more than one version
+   * @return the size in bytes of the jar files. The key in the map is the artifact name in GAV format.
+   */
+  protected Map<String, Long> readJarSizes(List<Conflict> conflicts) {
+    Map<String, Long> jarSizes = new HashMap<>();
+    if (conflicts.isEmpty()) {
+      return jarSizes;
+    }
+    Set<String> artifactNames = conflicts.stream()
+        .flatMap(conflict -> conflict.dependencies.stream())
+        .map(dependency -> dependency.artifactName)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+    Map<String, Project> byRepositories = new LinkedHashMap<>();
+    for (Project project : listProjectsToScan()) {
+      if (project.getPlugins().hasPlugin(JavaBasePlugin.class)) {
+        byRepositories.putIfAbsent(repositoriesOf(project), project);
+      }
+    }
+    for (Project project : byRepositories.values()) {
+      if (artifactNames.isEmpty()) {
+        break;
+      }
+      Map<String, Long> found = ArtifactMetadataUtil.readJarSizes(project, artifactNames);
+      jarSizes.putAll(found);
+      artifactNames.removeAll(found.keySet());
+    }
+    return jarSizes;
+  }
+
+}
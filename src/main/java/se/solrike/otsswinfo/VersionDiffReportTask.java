@@ -0,0 +1,133 @@
+package se.solrike.otsswinfo;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import se.solrike.otsswinfo.impl.CsvVersionDiffReportAction;
+import se.solrike.otsswinfo.impl.TaskMetrics;
+import se.solrike.otsswinfo.impl.VersionDiff;
+import se.solrike.otsswinfo.impl.VersionReportIndex;
+
+/**
+ * The task compares two version reports, e.g. from the previous release and from this release, and generates a report
+ * with the dependencies that are added, removed, upgraded, downgraded or have changed license.
+ * <p>
+ * The reports are streamed and only the name, version, group and license of each dependency are kept in memory.
+ *
+ * @author Lucas Persson
+ */
+@CacheableTask
+public abstract class VersionDiffReportTask extends DefaultTask {
+
+  /**
+   * Version report for the previous release.
+   *
+   * @return the file with the previous release of this project's dependencies
+   */
+  @InputFile
+  @PathSensitive(PathSensitivity.NONE)
+  public abstract RegularFileProperty getPreviousReportFile();
+
+  /**
+   * Version report for this release.
+   * <p>
+   * Default the report generated by the <code>versionReport</code> task.
+   *
+   * @return the file with this release's dependencies
+   */
+  @InputFile
+  @PathSensitive(PathSensitivity.NONE)
+  public abstract RegularFileProperty getCurrentReportFile();
+
+  /**
+   * Additional text to add in the beginning of the report
+   *
+   * @return list of string to add to the report
+   */
+  @Input
+  @Optional
+  public abstract ListProperty<String> getExtraVersionInfo();
+
+  /**
+   * The directory where reports will be generated.
+   *
+   * @return reports directory
+   */
+  @Internal
+  public abstract DirectoryProperty getReportsDir();
+
+  /**
+   * CSV separator. Default ",".
+   *
+   * @return CSV separator character
+   */
+  @Input
+  @Optional
+  public abstract Property<String> getReportCsvSeparator();
+
+  /**
+   * The generated report.
+   *
+   * @return the report file in the reports directory
+   */
+  @OutputFile
+  public Provider<RegularFile> getReportFile() {
+    return getReportsDir().file(CsvVersionDiffReportAction.REPORT_FILE_NAME);
+  }
+
+  @TaskAction
+  void run() {
+    TaskMetrics metrics = new TaskMetrics();
+    VersionReportIndex previous = metrics.time("readReports",
+        () -> VersionReportIndex.read(getPreviousReportFile().getAsFile().get()));
+    VersionReportIndex current = metrics.time("readReports",
+        () -> VersionReportIndex.read(getCurrentReportFile().getAsFile().get()));
+    metrics.increment("previousDependencies", previous.size());
+    metrics.increment("currentDependencies", current.size());
+
+    List<VersionDiff.Entry> entries = metrics.time("diff", () -> VersionDiff.diff(previous, current));
+    metrics.increment("changes", entries.size());
+
+    CsvVersionDiffReportAction reportAction = new CsvVersionDiffReportAction();
+    File reportFile = metrics.time("generateReport", () -> reportAction.generateReport(
+        getReportCsvSeparator().getOrElse(","), getReportsDir().getAsFile().get(),
+        getExtraVersionInfo().getOrElse(List.of()), entries));
+
+    Map<VersionDiff.Change, Integer> noofChanges = new TreeMap<>();
+    for (VersionDiff.Change change : VersionDiff.Change.values()) {
+      noofChanges.put(change, 0);
+    }
+    int noofLicenseChanges = 0;
+    for (VersionDiff.Entry entry : entries) {
+      noofChanges.merge(entry.change, 1, Integer::sum);
+      noofLicenseChanges += entry.isLicenseChanged() ? 1 : 0;
+    }
+    getLogger().error("Number of OTS SW added: {}, removed: {}, upgraded: {}, downgraded: {}, license changed: {}",
+        noofChanges.get(VersionDiff.Change.ADDED), noofChanges.get(VersionDiff.Change.REMOVED),
+        noofChanges.get(VersionDiff.Change.UPGRADED), noofChanges.get(VersionDiff.Change.DOWNGRADED),
+        noofLicenseChanges);
+    getLogger().error("See the version diff report at: {}", reportFile.getAbsolutePath());
+    metrics.write(new File(getReportsDir().getAsFile().get(), getName() + TaskMetrics.FILE_NAME_SUFFIX), getPath());
+    getLogger().lifecycle("Metrics for {}: {}", getPath(), metrics.getSummary());
+  }
+
+}
@@ -3,21 +3,40 @@ package se.solrike.otsswinfo;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.RegularFile;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.OutputFiles;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 
 import se.solrike.otsswinfo.impl.ArtifactMetadata;
 import se.solrike.otsswinfo.impl.CsvVersionReportAction;
 import se.solrike.otsswinfo.impl.NewToReleaseHelper;
+import se.solrike.otsswinfo.impl.VersionReportState;
+import se.solrike.otsswinfo.impl.VersionSnapshotWriter;
 
 /**
  * The task will scan all projects runtime dependencies and generate a report with version and licence info.
+ * <p>
+ * Since the POM for a released version never changes the report can be taken from the build cache as long as the
+ * dependencies are the same.
  *
  * @author Lucas Persson
  */
+@CacheableTask
 public abstract class VersionReportTask extends OtsSwInfoBaseTask {
 
   /**
@@ -27,38 +46,130 @@ public abstract class VersionReportTask extends OtsSwInfoBaseTask {
    */
   @InputFile
   @Optional
+  @PathSensitive(PathSensitivity.NONE)
   public abstract RegularFileProperty getPreviousReportFile();
 
+  /**
+   * Only read the POMs for dependencies that are added or changed since the previous run. The metadata from the
+   * previous run is stored next to the report.
+   * <p>
+   * Default false.
+   *
+   * @return true if the report shall be generated incrementally
+   */
+  @Input
+  @Optional
+  public abstract Property<Boolean> getIncremental();
+
+  /**
+   * The metadata read from the POMs, kept for the next incremental run. Restored from the build cache together with
+   * the report so it always belongs to the same execution as the report.
+   *
+   * @return the state file in the reports directory, not present unless the report is generated incrementally
+   */
+  @OutputFile
+  @Optional
+  public Provider<RegularFile> getStateFile() {
+    return getIncremental()
+        .flatMap(incremental -> Boolean.TRUE.equals(incremental) ? getReportsDir().file(VersionReportState.FILE_NAME)
+            : null);
+  }
+
+  /**
+   * Add the columns "Origins", the projects' configurations that each dependency is found in, and "Introduced Via",
+   * the shortest dependency path from a direct dependency, to the report.
+   * <p>
+   * Default false.
+   *
+   * @return true if the origin columns shall be included
+   */
+  @Input
+  @Optional
+  public abstract Property<Boolean> getIncludeOrigins();
+
+  /**
+   * The generated report.
+   *
+   * @return the report file in the reports directory
+   */
+  @OutputFile
+  public Provider<RegularFile> getReportFile() {
+    return getReportsDir().file(CsvVersionReportAction.REPORT_FILE_NAME);
+  }
+
+  /**
+   * Machine readable snapshots to write next to the CSV report, <code>json</code> and/or <code>cbor</code>. The
+   * snapshot has all the metadata for the dependencies and their dependency paths, see {@link VersionSnapshotWriter}.
+   * <p>
+   * Default none.
+   *
+   * @return the snapshot formats
+   */
+  @Input
+  @Optional
+  public abstract ListProperty<String> getSnapshotFormats();
+
+  /**
+   * The generated snapshots.
+   *
+   * @return the snapshot files in the reports directory
+   */
+  @OutputFiles
+  public FileCollection getSnapshotFiles() {
+    return snapshotFiles(CsvVersionReportAction.REPORT_FILE_NAME, getSnapshotFormats());
+  }
+
   @TaskAction
   void run() {
 
     initExcludeArtifactGroupsAll();
 
+    boolean incremental = getIncremental().getOrElse(false);
+    if (incremental) {
+      mPreviousPomMetadata = VersionReportState.load(getReportsDir().getAsFile().get());
+    }
+
     scanDependencies();
 
-    setNewToRelease();
+    if (incremental) {
+      VersionReportState.save(getReportsDir().getAsFile().get(), mScannedDependencies.values());
+    }
+
+    mMetrics.time("setNewToRelease", this::setNewToRelease);
 
-    File reportFile = generateVersionReport();
+    File reportFile = mMetrics.time("generateReport", this::generateVersionReport);
 
     getLogger().error("Number of OTS SW: {}", mDependencies.values().size());
     getLogger().error("See the version report at: {}", reportFile.getAbsolutePath());
+    writeMetrics();
   }
 
   protected File generateVersionReport() {
     ArrayList<ArtifactMetadata> deps = new ArrayList<>(mDependencies.values());
     Collections.sort(deps);
+    writeSnapshots(CsvVersionReportAction.REPORT_FILE_NAME, getSnapshotFormats().get(), deps);
     CsvVersionReportAction reportAction = new CsvVersionReportAction();
     return reportAction.generateReport(getReportCsvSeparator().getOrElse(","), getReportsDir().getAsFile().get(),
-        getExtraVersionInfo().get(), getPreviousReportFile().isPresent(), deps);
+        getExtraVersionInfo().get(), getPreviousReportFile().isPresent(), deps,
+        getIncludeOrigins().getOrElse(false) ? mOrigins : null);
   }
 
   protected void setNewToRelease() {
     // check which dependencies that are new for the release
     if (getPreviousReportFile().isPresent()) {
       NewToReleaseHelper newToReleaseHelper = new NewToReleaseHelper(getPreviousReportFile().getAsFile().get());
+      int noofNewToRelease = 0;
       for (ArtifactMetadata artifactMetadata : mDependencies.values()) {
         artifactMetadata.newToRelease = newToReleaseHelper.isDependecyNewToRelease(artifactMetadata);
+        noofNewToRelease += artifactMetadata.newToRelease ? 1 : 0;
       }
+      Map<ArtifactMetadata, String> upgraded = newToReleaseHelper.getUpgradedDependencies(mDependencies.values());
+      upgraded.forEach((artifactMetadata, previousVersion) -> getLogger().lifecycle(
+          "Upgraded since previous release: {} from {}", artifactMetadata.artifactName, previousVersion));
+      List<String> removed = newToReleaseHelper.getRemovedDependencies(mDependencies.values());
+      removed.forEach(artifactName -> getLogger().lifecycle("Removed since previous release: {}", artifactName));
+      getLogger().error("Number of OTS SW new to release: {}, upgraded: {}, removed: {}", noofNewToRelease,
+          upgraded.size(), removed.size());
     }
   }
 
@@ -0,0 +1,213 @@
+package se.solrike.otsswinfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+
+import groovy.lang.Closure;
+
+/**
+ * Policy that determines if a version is stable, i.e. a candidate for the latest version of a dependency.
+ * <p>
+ * A version is stable if the component status is one of the accepted statuses and the version contains any of the
+ * stable keywords (case insensitive), or matches any of the stable patterns, or the fallback closure returns true.
+ * <p>
+ * The rules are compiled when the policy is created and checking a version doesn't allocate any objects unless the
+ * fallback closure is called. The policy is immutable, the <code>with</code> methods return a new policy. E.g.
+ *
+ * <pre>
+ * otsSwInfo {
+ *   versionStabilityPolicy = se.solrike.otsswinfo.VersionStabilityPolicy.defaultPolicy().withKeywords('JRE')
+ * }
+ * </pre>
+ *
+ * @author Lucas Persson
+ */
+public final class VersionStabilityPolicy {
+
+  public static final String STATUS_RELEASE = "release";
+
+  private static final VersionStabilityPolicy DEFAULT = new VersionStabilityPolicy(
+      List.of(IsStableDefault.STABLE_KEYWORDS), List.of(IsStableDefault.STABLE_VERSION_REGEX), Set.of(STATUS_RELEASE),
+      null);
+
+  private final List<String> mKeywords;
+  private final List<String> mPatterns;
+  private final Set<String> mStatuses;
+  private final Closure<Boolean> mFallback;
+
+  private final String[] mCompiledKeywords;
+  private final Pattern[] mCompiledPatterns;
+  /**
+   * One matcher per pattern and thread so they can be reused.
+   */
+  private final ThreadLocal<Matcher[]> mMatchers;
+
+  private VersionStabilityPolicy(List<String> keywords, List<String> patterns, Set<String> statuses,
+      Closure<Boolean> fallback) {
+    mKeywords = List.copyOf(keywords);
+    mPatterns = List.copyOf(patterns);
+    mStatuses = Collections.unmodifiableSet(new LinkedHashSet<>(statuses));
+    mFallback = fallback;
+    mCompiledKeywords = mKeywords.stream().map(keyword -> keyword.toUpperCase(Locale.ROOT)).toArray(String[]::new);
+    mCompiledPatterns = mPatterns.stream().map(Pattern::compile).toArray(Pattern[]::new);
+    mMatchers = ThreadLocal.withInitial(
+        () -> Arrays.stream(mCompiledPatterns).map(pattern -> pattern.matcher("")).toArray(Matcher[]::new));
+  }
+
+  /**
+   * The same rules as {@link IsStableDefault#isStable(String)} and only components with release status.
+   *
+   * @return the default policy
+   */
+  public static VersionStabilityPolicy defaultPolicy() {
+    return DEFAULT;
+  }
+
+  /**
+   * Policy with only the closure, which is how the <code>isStable</code> closure is used.
+   *
+   * @param isStable
+   *          closure that takes a version string and returns true if it is considered a stable version
+   * @return policy that accepts components with release status if the closure returns true
+   */
+  public static VersionStabilityPolicy ofClosure(Closure<Boolean> isStable) {
+    return new VersionStabilityPolicy(List.of(), List.of(), Set.of(STATUS_RELEASE), isStable);
+  }
+
+  /**
+   * @param keywords
+   *          additional keywords, e.g. "JRE", that makes a version stable
+   * @return new policy with the keywords added
+   */
+  public VersionStabilityPolicy withKeywords(String... keywords) {
+    List<String> all = new ArrayList<>(mKeywords);
+    all.addAll(Arrays.asList(keywords));
+    return new VersionStabilityPolicy(all, mPatterns, mStatuses, mFallback);
+  }
+
+  /**
+   * @param patterns
+   *          additional regular expressions that the whole version must match to be stable
+   * @return new policy with the patterns added
+   */
+  public VersionStabilityPolicy withPatterns(String... patterns) {
+    List<String> all = new ArrayList<>(mPatterns);
+    all.addAll(Arrays.asList(patterns));
+    return new VersionStabilityPolicy(mKeywords, all, mStatuses, mFallback);
+  }
+
+  /**
+   * @param statuses
+   *          the accepted component statuses, e.g. "release" or "milestone"
+   * @return new policy with only these statuses accepted
+   */
+  public VersionStabilityPolicy withStatuses(String... statuses) {
+    return new VersionStabilityPolicy(mKeywords, mPatterns, new LinkedHashSet<>(Arrays.asList(statuses)), mFallback);
+  }
+
+  /**
+   * @param fallback
+   *          closure that is called if none of the keywords or patterns match
+   * @return new policy with the closure as fallback
+   */
+  public VersionStabilityPolicy withFallback(Closure<Boolean> fallback) {
+    return new VersionStabilityPolicy(mKeywords, mPatterns, mStatuses, fallback);
+  }
+
+  @Input
+  public List<String> getKeywords() {
+    return mKeywords;
+  }
+
+  @Input
+  public List<String> getPatterns() {
+    return mPatterns;
+  }
+
+  @Input
+  public Set<String> getStatuses() {
+    return mStatuses;
+  }
+
+  @Nested
+  @Optional
+  public Closure<Boolean> getFallback() {
+    return mFallback;
+  }
+
+  /**
+   * @param status
+   *          the component's status
+   * @param version
+   *          the component's version
+   * @return true if the component is stable
+   */
+  public boolean isAccepted(String status, String version) {
+    return mStatuses.contains(status) && isStable(version);
+  }
+
+  /**
+   * @param version
+   *          the version
+   * @return true if the version is stable, not considering the status
+   */
+  public boolean isStable(String version) {
+    for (String keyword : mCompiledKeywords) {
+      if (containsIgnoreCase(version, keyword)) {
+        return true;
+      }
+    }
+    if (mCompiledPatterns.length > 0) {
+      for (Matcher matcher : mMatchers.get()) {
+        if (matcher.reset(version).matches()) {
+          return true;
+        }
+      }
+    }
+    return mFallback != null && Boolean.TRUE.equals(mFallback.call(version));
+  }
+
+  /**
+   * Identifies the rules, e.g. for caching answers given by the policy.
+   *
+   * @return the keywords, patterns, statuses and the class of the fallback closure
+   */
+  @Internal
+  public String getIdentity() {
+    return "keywords=" + mKeywords + " patterns=" + mPatterns + " statuses=" + mStatuses + " fallback="
+        + (mFallback != null ? mFallback.getClass().getName() : "");
+  }
+
+  @Override
+  public String toString() {
+    return "VersionStabilityPolicy [" + getIdentity() + "]";
+  }
+
+  /**
+   * @param upperCaseKeyword
+   *          keyword in upper case
+   * @return true if the text contains the keyword in any case, without converting the text
+   */
+  static boolean containsIgnoreCase(String text, String upperCaseKeyword) {
+    int length = upperCaseKeyword.length();
+    for (int i = 0; i <= text.length() - length; i++) {
+      if (text.regionMatches(true, i, upperCaseKeyword, 0, length)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
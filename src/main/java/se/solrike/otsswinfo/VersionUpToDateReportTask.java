@@ -1,22 +1,45 @@
 package se.solrike.otsswinfo;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
 import org.gradle.api.artifacts.ComponentMetadata;
 import org.gradle.api.artifacts.ComponentSelection;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.LenientConfiguration;
+import org.gradle.api.artifacts.ResolveException;
 import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.api.artifacts.repositories.PasswordCredentials;
+import org.gradle.api.artifacts.repositories.UrlArtifactRepository;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.OutputFiles;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.authentication.http.BasicAuthentication;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,7 +48,13 @@ import com.vdurmont.semver4j.Semver.SemverType;
 
 import groovy.lang.Closure;
 import se.solrike.otsswinfo.impl.ArtifactMetadata;
+import se.solrike.otsswinfo.impl.ArtifactMetadataUtil;
 import se.solrike.otsswinfo.impl.CsvVersionUpToDateReportAction;
+import se.solrike.otsswinfo.impl.LatestVersionCache;
+import se.solrike.otsswinfo.impl.MavenMetadataVersionLister;
+import se.solrike.otsswinfo.impl.PomMetadata;
+import se.solrike.otsswinfo.impl.VersionComparator;
+import se.solrike.otsswinfo.impl.VersionSnapshotWriter;
 
 /**
  * The task will scan all projects runtime dependencies and generate a report with version and if the there is a later
@@ -38,6 +67,15 @@ import se.solrike.otsswinfo.impl.CsvVersionUpToDateReportAction;
 public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
 
   private static final Logger sLogger = LoggerFactory.getLogger(VersionUpToDateReportTask.class);
+  private static final int DEFAULT_LATEST_VERSION_BATCH_SIZE = 100;
+  /**
+   * Find the latest version by resolving a dynamic version, which fetches the module metadata for each candidate.
+   */
+  public static final String LATEST_VERSION_LOOKUP_RESOLVE = "resolve";
+  /**
+   * Find the latest version from the version listing in <code>maven-metadata.xml</code>.
+   */
+  public static final String LATEST_VERSION_LOOKUP_MAVEN_METADATA = "mavenMetadata";
 
   /**
    * Closure that takes a version string and return true if it is considered a stable version
@@ -48,6 +86,17 @@ public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
   @Optional
   public abstract Property<Closure<Boolean>> getIsStable();
 
+  /**
+   * Policy that determines if a version is stable. Takes precedence over {@link #getIsStable()}.
+   * <p>
+   * Default {@link VersionStabilityPolicy#defaultPolicy()} unless {@link #getIsStable()} is set.
+   *
+   * @return the policy
+   */
+  @Nested
+  @Optional
+  public abstract Property<VersionStabilityPolicy> getVersionStabilityPolicy();
+
   /**
    * Allowed older major version increments compared to current stable version.
    * <p>
@@ -70,12 +119,99 @@ public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
   @Optional
   public abstract Property<Integer> getAllowedOldMinorVersion();
 
+  /**
+   * The generated report.
+   *
+   * @return the report file in the reports directory
+   */
+  @OutputFile
+  public Provider<RegularFile> getReportFile() {
+    return getReportsDir().file(CsvVersionUpToDateReportAction.REPORT_FILE_NAME);
+  }
+
+  /**
+   * Number of dependencies to find the latest version for in one resolution. Gradle fetches the metadata for the
+   * dependencies in one resolution in parallel. The parallelism is limited by Gradle's max workers.
+   * <p>
+   * Default 100.
+   *
+   * @return number of dependencies per resolution
+   */
+  @Internal
+  public abstract Property<Integer> getLatestVersionBatchSize();
+
+  /**
+   * How to find the latest version of the dependencies.
+   * <ul>
+   * <li><code>resolve</code>: Gradle resolves the dynamic version <code>group:name:+</code> which fetches the metadata
+   * for each candidate version.
+   * <li><code>mavenMetadata</code>: only the version listing, <code>maven-metadata.xml</code>, is read from the Maven
+   * repositories. The versions are filtered with the version stability policy and only the POM for the chosen version
+   * is fetched. Modules not found this way, e.g. only found in Ivy repositories, are resolved instead. Credentials are
+   * only used with the repositories where basic authentication is configured, and if a repository uses another kind of
+   * authentication all versions are resolved.
+   * </ul>
+   * Default <code>resolve</code>.
+   *
+   * @return the lookup mode
+   */
+  @Input
+  @Optional
+  public abstract Property<String> getLatestVersionLookup();
+
+  /**
+   * How long the latest version of a dependency is cached. The cache is shared between builds and is only valid for the
+   * same version stability policy and the same repositories. Cached versions older than 30 days are not used.
+   * <p>
+   * Default not set, i.e. no caching.
+   *
+   * @return time to live for cached latest versions
+   */
+  @Internal
+  public abstract Property<Duration> getLatestVersionCacheTtl();
+
+  /**
+   * Directory for persistent caches.
+   *
+   * @return the cache directory
+   */
+  @Internal
+  public abstract DirectoryProperty getCacheDir();
+
   /**
    * Map of dependencies that weren't possible to resolve properly.
    * <p>
-   * The key in the map is the artifact name in GAV format (group:artifact:version).
+   * The key in the map is the artifact name in GAV format (group:artifact:version). Sorted so the report is
+   * deterministic.
+   */
+  protected Map<String, ArtifactMetadata> mNonDetermineDependencies = new TreeMap<>();
+
+  /**
+   * Created once before the latest versions are resolved and then used for all candidate versions.
+   */
+  protected VersionStabilityPolicy mStabilityPolicy;
+
+  /**
+   * Machine readable snapshots to write next to the CSV report, <code>json</code> and/or <code>cbor</code>. The
+   * snapshot has all the metadata for the dependencies and their dependency paths, see {@link VersionSnapshotWriter}.
+   * <p>
+   * Default none.
+   *
+   * @return the snapshot formats
+   */
+  @Input
+  @Optional
+  public abstract ListProperty<String> getSnapshotFormats();
+
+  /**
+   * The generated snapshots.
+   *
+   * @return the snapshot files in the reports directory
    */
-  protected Map<String, ArtifactMetadata> mNonDetermineDependencies = new HashMap<>();
+  @OutputFiles
+  public FileCollection getSnapshotFiles() {
+    return snapshotFiles(CsvVersionUpToDateReportAction.REPORT_FILE_NAME, getSnapshotFormats());
+  }
 
   @TaskAction
   void run() {
@@ -84,9 +220,9 @@ public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
 
     scanDependencies();
 
-    setLatestVersion();
+    mMetrics.time("setLatestVersion", () -> setLatestVersion());
 
-    File reportFile = generateUpToDateVersionReport();
+    File reportFile = mMetrics.time("generateReport", this::generateUpToDateVersionReport);
     int totalNumberOfDeps = mDependencies.values().size() + mNonDetermineDependencies.values().size();
 
     long noofOutdateDeps = mDependencies.values().stream().filter(metaData -> !metaData.isLatest()).count();
@@ -97,12 +233,18 @@ public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
         .count();
     getLogger().error("Number of OTS SW that are too old: {} out of {}", noofTooOld, totalNumberOfDeps);
     getLogger().error("See the version up-to-date report at: {}", reportFile.getAbsolutePath());
-
+    writeMetrics();
   }
 
   private File generateUpToDateVersionReport() {
     ArrayList<ArtifactMetadata> deps = new ArrayList<>(mDependencies.values());
     Collections.sort(deps);
+    if (!getSnapshotFormats().get().isEmpty()) {
+      List<ArtifactMetadata> all = new ArrayList<>(deps);
+      all.addAll(mNonDetermineDependencies.values());
+      Collections.sort(all);
+      writeSnapshots(CsvVersionUpToDateReportAction.REPORT_FILE_NAME, getSnapshotFormats().get(), all);
+    }
     CsvVersionUpToDateReportAction reportAction = new CsvVersionUpToDateReportAction();
     return reportAction.generateReport(getReportCsvSeparator().getOrElse(","), getReportsDir().getAsFile().get(),
         getExtraVersionInfo().get(), deps, mNonDetermineDependencies.values());
@@ -110,36 +252,247 @@ public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
   }
 
   protected void setLatestVersion() {
+    mStabilityPolicy = createStabilityPolicy();
+    LatestVersionCache latestVersionCache = createLatestVersionCache();
+
+    // key is group:module
+    Map<String, String> latestVersions = new HashMap<>();
+    List<ArtifactMetadata> deps = new ArrayList<>();
+    for (ArtifactMetadata metadata : mDependencies.values()) {
+      String cachedVersion = latestVersionCache != null ? latestVersionCache.get(moduleOf(metadata)) : null;
+      if (cachedVersion != null) {
+        latestVersions.put(moduleOf(metadata), cachedVersion);
+      }
+      else {
+        deps.add(metadata);
+      }
+    }
+    mMetrics.increment("latestVersionCacheHits", latestVersions.size());
+
+    int batchSize = Math.max(1, getLatestVersionBatchSize().getOrElse(DEFAULT_LATEST_VERSION_BATCH_SIZE));
+    MavenMetadataVersionLister lister = useMavenMetadataLookup() ? createMavenMetadataVersionLister() : null;
+    if (lister != null) {
+      List<ArtifactMetadata> notListed = new ArrayList<>();
+      for (int i = 0; i < deps.size(); i += batchSize) {
+        List<ArtifactMetadata> batch = deps.subList(i, Math.min(i + batchSize, deps.size()));
+        Map<String, String> listed = mMetrics.time("listLatestVersions", () -> listLatestVersions(lister, batch));
+        mMetrics.increment("latestVersionsListed", listed.size());
+        latestVersions.putAll(listed);
+        if (latestVersionCache != null) {
+          listed.forEach(latestVersionCache::put);
+        }
+        batch.stream().filter(metadata -> !listed.containsKey(moduleOf(metadata))).forEach(notListed::add);
+      }
+      deps = notListed;
+    }
+    for (int i = 0; i < deps.size(); i += batchSize) {
+      List<ArtifactMetadata> batch = deps.subList(i, Math.min(i + batchSize, deps.size()));
+      Map<String, String> resolved = mMetrics.time("resolveLatestVersions", () -> resolveLatestVersions(batch));
+      mMetrics.increment("latestVersionsResolved", resolved.size());
+      mMetrics.increment("latestVersionBatches", 1);
+      latestVersions.putAll(resolved);
+      if (latestVersionCache != null) {
+        resolved.forEach(latestVersionCache::put);
+      }
+    }
+    if (latestVersionCache != null) {
+      latestVersionCache.save();
+    }
+
     for (ArtifactMetadata metadata : mDependencies.values()) {
-      // use Ivy notation with "+" to get the latest
-      // but we might end up with an alpha or beta release so those needs to be filtered out
-      Dependency query = getProject().getDependencies()
-          .create(metadata.artifact.getModuleGroup() + ":" + metadata.artifact.getModuleName() + ":+");
+      setLatestVersion(metadata, latestVersions.get(moduleOf(metadata)));
+    }
+    for (String gav : mNonDetermineDependencies.keySet()) {
+      mDependencies.remove(gav);
+    }
+  }
 
-      Configuration latestConfiguration = getProject().getConfigurations().detachedConfiguration(query);
+  protected void setLatestVersion(ArtifactMetadata metadata, String latestVersion) {
+    if (latestVersion != null) {
+      metadata.latestVersion = latestVersion;
 
-      // configure stable version filter
-      configureVersionFilter(latestConfiguration);
+      // check how old the current version is
+      metadata.isTooOldVersion = isTooOld(getAllowedOldMajorVersion().getOrElse(0),
+          getAllowedOldMinorVersion().getOrElse(2), metadata.version, metadata.latestVersion);
 
-      LenientConfiguration lenient = latestConfiguration.getResolvedConfiguration().getLenientConfiguration();
+    }
+    else {
+      mNonDetermineDependencies.put(metadata.artifactName, metadata);
+      sLogger.error("Not possible to determin if {} is latest version or not.", metadata.artifactName);
+    }
+  }
 
-      if (lenient.getFirstLevelModuleDependencies().iterator().hasNext()) {
-        ResolvedDependency latest = lenient.getFirstLevelModuleDependencies().iterator().next();
-        metadata.latestVersion = latest.getModuleVersion();
+  /**
+   * The cache is only used if a time to live is configured.
+   *
+   * @return the cache or null if not used
+   */
+  protected LatestVersionCache createLatestVersionCache() {
+    Duration ttl = getLatestVersionCacheTtl().getOrNull();
+    if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+      return null;
+    }
+    String scope = LatestVersionCache.scopeOf(mStabilityPolicy.getIdentity(), listScannedRepositories());
+    return new LatestVersionCache(getCacheDir().getAsFile().get(), scope, ttl);
+  }
+
+  /**
+   * @return the URLs, or names if they have no URL, of the repositories of this project and all the projects to scan
+   */
+  protected List<String> listScannedRepositories() {
+    Set<Project> projects = new LinkedHashSet<>();
+    projects.add(getProject());
+    listProjectsToScan().stream()
+        .filter(project -> project.getPlugins().hasPlugin(JavaBasePlugin.class))
+        .forEach(projects::add);
+    Set<String> repositories = new LinkedHashSet<>();
+    for (Project project : projects) {
+      project.getRepositories()
+          .stream()
+          .map(repository -> repository instanceof UrlArtifactRepository
+              ? ((UrlArtifactRepository) repository).getUrl().toString()
+              : repository.getName())
+          .forEach(repositories::add);
+    }
+    return new ArrayList<>(repositories);
+  }
+
+  protected static String moduleOf(ArtifactMetadata metadata) {
+    return metadata.group + ":" + metadata.name;
+  }
+
+  /**
+   * Resolve the latest stable version for all the artifacts in one detached configuration.
+   * <p>
+   * Gradle will then fetch the metadata for the modules in parallel. Should the resolution of the configuration fail as
+   * a whole the artifacts are resolved one by one instead.
+   *
+   * @param batch
+   *          the artifacts to find the latest version for
+   * @return map with group:module as key and latest version as value. Artifacts where the latest version couldn't be
+   *         determined are missing.
+   */
+  protected Map<String, String> resolveLatestVersions(List<ArtifactMetadata> batch) {
+    // use Ivy notation with "+" to get the latest
+    // but we might end up with an alpha or beta release so those needs to be filtered out
+    Dependency[] queries = batch.stream()
+        .map(metadata -> getProject().getDependencies()
+            .create(metadata.group + ":" + metadata.name + ":+"))
+        .toArray(Dependency[]::new);
 
-        // check how old the current version is
-        metadata.isTooOldVersion = isTooOld(getAllowedOldMajorVersion().getOrElse(0),
-            getAllowedOldMinorVersion().getOrElse(2), metadata.artifact.getModuleVersion(), metadata.latestVersion);
+    Configuration latestConfiguration = getProject().getConfigurations().detachedConfiguration(queries);
+    // only the modules themselves are of interest
+    latestConfiguration.setTransitive(false);
 
+    // configure stable version filter
+    configureVersionFilter(latestConfiguration);
+
+    Map<String, String> latestVersions = new HashMap<>();
+    try {
+      LenientConfiguration lenient = latestConfiguration.getResolvedConfiguration().getLenientConfiguration();
+      for (ResolvedDependency latest : lenient.getFirstLevelModuleDependencies()) {
+        latestVersions.put(latest.getModuleGroup() + ":" + latest.getModuleName(), latest.getModuleVersion());
+      }
+    }
+    catch (ResolveException e) {
+      if (batch.size() == 1) {
+        sLogger.info("Not possible to resolve latest version of {}", batch.get(0).artifactName, e);
       }
       else {
-        mNonDetermineDependencies.put(metadata.artifactName, metadata);
-        sLogger.error("Not possible to determin if {} is latest version or not.", metadata.artifactName);
+        batch.forEach(metadata -> latestVersions.putAll(resolveLatestVersions(List.of(metadata))));
       }
     }
-    for (String gav : mNonDetermineDependencies.keySet()) {
-      mDependencies.remove(gav);
+    return latestVersions;
+  }
+
+  protected boolean useMavenMetadataLookup() {
+    String lookup = getLatestVersionLookup().getOrElse(LATEST_VERSION_LOOKUP_RESOLVE);
+    if (!LATEST_VERSION_LOOKUP_RESOLVE.equals(lookup) && !LATEST_VERSION_LOOKUP_MAVEN_METADATA.equals(lookup)) {
+      throw new GradleException("Unknown latestVersionLookup '" + lookup + "', use '" + LATEST_VERSION_LOOKUP_RESOLVE
+          + "' or '" + LATEST_VERSION_LOOKUP_MAVEN_METADATA + "'");
+    }
+    // in offline mode only Gradle's cache can be used
+    return LATEST_VERSION_LOOKUP_MAVEN_METADATA.equals(lookup)
+        && !getProject().getGradle().getStartParameter().isOffline();
+  }
+
+  /**
+   * Only user name and password are supported. They are only read if basic authentication is configured for the
+   * repository since reading them otherwise would add empty credentials to repositories without any. Without it the
+   * repository is listed anonymously and the modules it refuses to list are resolved instead.
+   *
+   * @return the lister or null if a repository uses another authentication and the versions have to be resolved
+   */
+  protected MavenMetadataVersionLister createMavenMetadataVersionLister() {
+    List<MavenMetadataVersionLister.Repository> repositories = new ArrayList<>();
+    for (ArtifactRepository repository : getProject().getRepositories()) {
+      if (repository instanceof MavenArtifactRepository
+          && MavenMetadataVersionLister.isSupported(((MavenArtifactRepository) repository).getUrl())) {
+        MavenArtifactRepository mavenRepository = (MavenArtifactRepository) repository;
+        MavenMetadataVersionLister.Repository listed = new MavenMetadataVersionLister.Repository(
+            mavenRepository.getUrl());
+        if (!mavenRepository.getAuthentication().isEmpty()) {
+          if (!mavenRepository.getAuthentication().stream().allMatch(BasicAuthentication.class::isInstance)) {
+            sLogger.info("The versions can't be listed in {} due to its authentication, resolving them instead.",
+                mavenRepository.getUrl());
+            return null;
+          }
+          try {
+            PasswordCredentials credentials = mavenRepository.getCredentials(PasswordCredentials.class);
+            listed.username = credentials.getUsername();
+            listed.password = credentials.getPassword();
+          }
+          catch (IllegalArgumentException | IllegalStateException e) {
+            sLogger.info("The versions can't be listed in {} due to its credentials, resolving them instead.",
+                mavenRepository.getUrl(), e);
+            return null;
+          }
+        }
+        repositories.add(listed);
+      }
     }
+    return new MavenMetadataVersionLister(repositories);
+  }
+
+  /**
+   * Find the latest stable version from the modules' version listings. The POM of the chosen version is resolved to
+   * make sure the version is actually available.
+   *
+   * @param lister
+   *          lister for the repositories
+   * @param batch
+   *          the artifacts to find the latest version for
+   * @return map with group:module as key and latest version as value. Artifacts where the latest version couldn't be
+   *         determined are missing.
+   */
+  protected Map<String, String> listLatestVersions(MavenMetadataVersionLister lister, List<ArtifactMetadata> batch) {
+    Map<String, List<String>> listedVersions = lister
+        .listVersions(batch.stream().map(VersionUpToDateReportTask::moduleOf).collect(Collectors.toSet()));
+    Map<String, String> latestVersions = new HashMap<>();
+    listedVersions.forEach((module, versions) -> {
+      String latest = null;
+      for (String version : versions) {
+        // Gradle gives Maven modules the status integration for snapshots and release otherwise
+        String status = version.endsWith("-SNAPSHOT") ? "integration" : VersionStabilityPolicy.STATUS_RELEASE;
+        if (mStabilityPolicy.isAccepted(status, version)
+            && (latest == null || VersionComparator.INSTANCE.compare(version, latest) > 0)) {
+          latest = version;
+        }
+      }
+      if (latest != null) {
+        latestVersions.put(module, latest);
+      }
+    });
+    Map<String, String> gavs = new HashMap<>();
+    latestVersions.forEach((module, version) -> gavs.put(module + ":" + version, module));
+    Map<String, PomMetadata> poms = getPomMetadataService().get()
+        .getPomMetadata(gavs.keySet(), toRead -> ArtifactMetadataUtil.readPomMetadata(getProject(), toRead));
+    gavs.forEach((gav, module) -> {
+      if (!poms.containsKey(gav)) {
+        latestVersions.remove(module);
+      }
+    });
+    return latestVersions;
   }
 
   protected static boolean isTooOld(int allowedOldMajorVersion, int allowedOldMinorVersion, String currentVersion,
@@ -167,8 +520,7 @@ public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
     ComponentMetadata metadata = selection.getMetadata();
     // @formatter:off
     boolean accepted = (metadata == null)
-        || (metadata.getStatus().equals("release")
-            && getIsStable().getOrElse(IsStableDefault.isStable).call(metadata.getId().getVersion()))
+        || mStabilityPolicy.isAccepted(metadata.getStatus(), metadata.getId().getVersion())
         || selection.getCandidate().getVersion().equals("none");
     // @formatter:on
     if (!accepted) {
@@ -177,4 +529,19 @@ public abstract class VersionUpToDateReportTask extends OtsSwInfoBaseTask {
     }
   }
 
+  /**
+   * @return the configured policy, a policy with the <code>isStable</code> closure or the default policy
+   */
+  protected VersionStabilityPolicy createStabilityPolicy() {
+    if (getVersionStabilityPolicy().isPresent()) {
+      return getVersionStabilityPolicy().get();
+    }
+    else if (getIsStable().isPresent()) {
+      return VersionStabilityPolicy.ofClosure(getIsStable().get());
+    }
+    else {
+      return VersionStabilityPolicy.defaultPolicy();
+    }
+  }
+
 }
@@ -1,25 +1,93 @@
 package se.solrike.otsswinfo.impl;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-import org.gradle.api.artifacts.ResolvedDependency;
-
 /**
+ * The metadata for a dependency.
+ * <p>
+ * The metadata is detached from Gradle's resolution result, the dependency's place in the dependency graph is kept in a
+ * compact {@link DependencyGraph} instead.
+ *
  * @author Lucas Persson
  */
 @SuppressWarnings("java:S1104")
-public class ArtifactMetadata implements Comparable<ArtifactMetadata> {
+public class ArtifactMetadata implements Comparable<ArtifactMetadata>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Metadata for a dependency that isn't in any dependency graph.
+   *
+   * @param group
+   *          the group
+   * @param name
+   *          the module name
+   * @param version
+   *          the version
+   */
+  public ArtifactMetadata(String group, String name, String version) {
+    this.artifactName = group + ":" + name + ":" + version;
+    this.group = group;
+    this.name = name;
+    this.version = version;
+    this.node = -1;
+  }
 
-  public ArtifactMetadata(String artifactName, ResolvedDependency artifact) {
-    this.artifactName = artifactName;
-    this.artifact = artifact;
+  /**
+   * Metadata for a dependency in a dependency graph.
+   *
+   * @param graph
+   *          the graph
+   * @param node
+   *          the dependency's node in the graph
+   */
+  public ArtifactMetadata(DependencyGraph graph, int node) {
+    this.artifactName = graph.getName(node);
+    this.group = graph.getGroup(node);
+    this.name = graph.getModule(node);
+    this.version = graph.getVersion(node);
+    this.graph = graph;
+    this.node = node;
+  }
+
+  /**
+   * Copy the metadata that is read from the POM.
+   *
+   * @param other
+   *          the metadata to copy
+   */
+  public ArtifactMetadata(ArtifactMetadata other) {
+    this.artifactName = other.artifactName;
+    this.group = other.group;
+    this.name = other.name;
+    this.version = other.version;
+    this.graph = other.graph;
+    this.node = other.node;
+    this.license = other.license;
+    this.licenseUrl = other.licenseUrl;
+    this.url = other.url;
+    this.description = other.description;
   }
 
   /**
    * the full name as GAV (group:moduleName:version)
    */
   public String artifactName;
-  public ResolvedDependency artifact;
+  public String group;
+  /**
+   * the module name
+   */
+  public String name;
+  public String version;
+  /**
+   * the dependency graph the dependency was found in, null if it isn't from a graph
+   */
+  public DependencyGraph graph;
+  /**
+   * the dependency's node in the graph
+   */
+  public int node;
   public String license;
   public String licenseUrl;
   /**
@@ -39,17 +107,30 @@ public class ArtifactMetadata implements Comparable<ArtifactMetadata> {
    * @return true if the current version is already latest version
    */
   public boolean isLatest() {
-    return artifact.getModuleVersion().equals(latestVersion);
+    return version.equals(latestVersion);
+  }
+
+  /**
+   * Use the pooled strings for the metadata read from the POM so equal strings are only kept once.
+   *
+   * @param pool
+   *          the pool
+   */
+  public void intern(StringPool pool) {
+    license = pool.intern(license);
+    licenseUrl = pool.intern(licenseUrl);
+    url = pool.intern(url);
+    description = pool.intern(description);
   }
 
   @Override
   public int compareTo(ArtifactMetadata other) {
-    return artifact.getModuleName().toLowerCase().compareTo(other.artifact.getModuleName().toLowerCase());
+    return name.toLowerCase().compareTo(other.name.toLowerCase());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(artifact.getModuleName().toLowerCase());
+    return Objects.hash(name.toLowerCase());
   }
 
   @Override
@@ -64,7 +145,7 @@ public class ArtifactMetadata implements Comparable<ArtifactMetadata> {
       return false;
     }
     ArtifactMetadata other = (ArtifactMetadata) obj;
-    return Objects.equals(artifact.getModuleName().toLowerCase(), other.artifact.getModuleName().toLowerCase());
+    return Objects.equals(name.toLowerCase(), other.name.toLowerCase());
   }
 
   @Override
@@ -0,0 +1,125 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes CBOR (RFC 8949) to a stream. Objects and arrays are written with indefinite length so the number of members
+ * doesn't have to be known in advance.
+ *
+ * @author Lucas Persson
+ */
+public class CborSnapshotEncoder implements SnapshotEncoder {
+
+  private static final int MAJOR_UNSIGNED = 0;
+  private static final int MAJOR_NEGATIVE = 1;
+  private static final int MAJOR_TEXT = 3;
+  private static final int INDEFINITE_ARRAY = 0x9f;
+  private static final int INDEFINITE_MAP = 0xbf;
+  private static final int FALSE = 0xf4;
+  private static final int TRUE = 0xf5;
+  private static final int NULL = 0xf6;
+  private static final int BREAK = 0xff;
+
+  private final OutputStream mOut;
+
+  public CborSnapshotEncoder(OutputStream out) {
+    mOut = out;
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    mOut.write(INDEFINITE_MAP);
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    mOut.write(BREAK);
+  }
+
+  @Override
+  public void beginArray() throws IOException {
+    mOut.write(INDEFINITE_ARRAY);
+  }
+
+  @Override
+  public void endArray() throws IOException {
+    mOut.write(BREAK);
+  }
+
+  @Override
+  public void name(String name) throws IOException {
+    value(name);
+  }
+
+  @Override
+  public void value(String value) throws IOException {
+    if (value == null) {
+      mOut.write(NULL);
+    }
+    else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeHead(MAJOR_TEXT, bytes.length);
+      mOut.write(bytes);
+    }
+  }
+
+  @Override
+  public void value(Boolean value) throws IOException {
+    if (value == null) {
+      mOut.write(NULL);
+    }
+    else {
+      mOut.write(value ? TRUE : FALSE);
+    }
+  }
+
+  @Override
+  public void value(long value) throws IOException {
+    if (value >= 0) {
+      writeHead(MAJOR_UNSIGNED, value);
+    }
+    else {
+      writeHead(MAJOR_NEGATIVE, -1 - value);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    mOut.close();
+  }
+
+  /**
+   * Write the initial byte with the major type and the argument in the shortest form.
+   */
+  private void writeHead(int majorType, long argument) throws IOException {
+    int type = majorType << 5;
+    if (argument < 24) {
+      mOut.write(type | (int) argument);
+    }
+    else if (argument <= 0xff) {
+      mOut.write(type | 24);
+      mOut.write((int) argument);
+    }
+    else if (argument <= 0xffff) {
+      mOut.write(type | 25);
+      writeBytes(argument, 2);
+    }
+    else if (argument <= 0xffffffffL) {
+      mOut.write(type | 26);
+      writeBytes(argument, 4);
+    }
+    else {
+      mOut.write(type | 27);
+      writeBytes(argument, 8);
+    }
+  }
+
+  private void writeBytes(long argument, int count) throws IOException {
+    for (int i = count - 1; i >= 0; i--) {
+      mOut.write((int) (argument >>> (i * 8)));
+    }
+  }
+
+}
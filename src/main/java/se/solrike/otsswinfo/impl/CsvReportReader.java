@@ -0,0 +1,138 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for the CSV reports generated by this plugin.
+ * <p>
+ * The report is read one row at the time. Quoted cells might contain the separator, quotes escaped as "" and line
+ * breaks as specified in https://www.ietf.org/rfc/rfc4180.txt. The separator is taken from the first line if it is on
+ * the format "sep=,", otherwise tab is assumed which was used by older versions of the plugin. The separator might be
+ * more than one character.
+ *
+ * @author Lucas Persson
+ */
+public class CsvReportReader implements Closeable {
+
+  private static final String SEPARATOR_LINE = "sep=";
+
+  private final BufferedReader mReader;
+  private String mSeparator = "\t";
+  private boolean mFirstRow = true;
+  private int mPeeked = -2;
+
+  public CsvReportReader(Reader reader) {
+    mReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+  }
+
+  /**
+   * Read the next row.
+   *
+   * @return the cells in the row, or null at the end of the report. An empty line gives one empty cell.
+   * @throws IOException
+   *           if the report can't be read
+   */
+  public List<String> readRow() throws IOException {
+    List<String> cells = readRecord();
+    if (mFirstRow) {
+      mFirstRow = false;
+      if (cells != null && cells.get(0).startsWith(SEPARATOR_LINE)) {
+        // with tab in the separator the line is split in several cells
+        String separator = String.join("\t", cells).substring(SEPARATOR_LINE.length());
+        mSeparator = separator.isEmpty() ? "\t" : separator;
+        cells = readRecord();
+      }
+    }
+    return cells;
+  }
+
+  @Override
+  public void close() throws IOException {
+    mReader.close();
+  }
+
+  private List<String> readRecord() throws IOException {
+    int c = read();
+    if (c == -1) {
+      return null;
+    }
+    List<String> cells = new ArrayList<>();
+    StringBuilder cell = new StringBuilder();
+    boolean quoted = false;
+    while (c != -1) {
+      if (quoted) {
+        if (c == '"') {
+          if (peek() == '"') {
+            read();
+            cell.append('"');
+          }
+          else {
+            quoted = false;
+          }
+        }
+        else {
+          cell.append((char) c);
+        }
+      }
+      else if (c == '"' && cell.length() == 0) {
+        quoted = true;
+      }
+      else if (isSeparator(c)) {
+        cells.add(cell.toString());
+        cell.setLength(0);
+      }
+      else if (c == '\n' || c == '\r') {
+        if (c == '\r' && peek() == '\n') {
+          read();
+        }
+        break;
+      }
+      else {
+        cell.append((char) c);
+      }
+      c = read();
+    }
+    cells.add(cell.toString());
+    return cells;
+  }
+
+  /**
+   * Check if the character starts the separator and if so also read the rest of the separator. Must not be called
+   * with a peeked character.
+   */
+  private boolean isSeparator(int c) throws IOException {
+    if (c != mSeparator.charAt(0)) {
+      return false;
+    }
+    mReader.mark(mSeparator.length());
+    for (int i = 1; i < mSeparator.length(); i++) {
+      if (mReader.read() != mSeparator.charAt(i)) {
+        mReader.reset();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int read() throws IOException {
+    if (mPeeked != -2) {
+      int c = mPeeked;
+      mPeeked = -2;
+      return c;
+    }
+    return mReader.read();
+  }
+
+  private int peek() throws IOException {
+    if (mPeeked == -2) {
+      mPeeked = mReader.read();
+    }
+    return mPeeked;
+  }
+
+}
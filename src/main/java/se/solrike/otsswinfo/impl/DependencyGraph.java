@@ -0,0 +1,182 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.artifacts.ResolvedDependency;
+
+/**
+ * A resolved dependency graph detached from Gradle's resolution result, e.g. for a project's configuration.
+ * <p>
+ * The nodes are numbered and the edges kept as arrays so the graph is compact and doesn't keep Gradle's objects
+ * reachable. Node {@link #ROOT} is the project itself and its children are the first level dependencies. The children
+ * and parents of each node are in the same order as in Gradle's graph.
+ *
+ * @author Lucas Persson
+ */
+public class DependencyGraph implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The project whose dependencies the graph has.
+   */
+  public static final int ROOT = 0;
+
+  private static final int[] NONE = new int[0];
+
+  // the root has no GAV so its entries are null
+  private final String[] mNames;
+  private final String[] mGroups;
+  private final String[] mModules;
+  private final String[] mVersions;
+  private final int[][] mChildren;
+  private final int[][] mParents;
+
+  private DependencyGraph(int size) {
+    mNames = new String[size];
+    mGroups = new String[size];
+    mModules = new String[size];
+    mVersions = new String[size];
+    mChildren = new int[size][];
+    mParents = new int[size][];
+  }
+
+  /**
+   * Copy a resolved graph. The nodes are numbered in the order they are reached by a depth first walk from the first
+   * level dependencies.
+   *
+   * @param firstLevelDependencies
+   *          the project's first level dependencies in a resolved configuration
+   * @param pool
+   *          pool for the names
+   * @return the detached graph
+   */
+  public static DependencyGraph of(Collection<ResolvedDependency> firstLevelDependencies, StringPool pool) {
+    // the graph nodes are unique instances
+    Map<ResolvedDependency, Integer> ids = new IdentityHashMap<>();
+    List<ResolvedDependency> nodes = new ArrayList<>();
+    nodes.add(null);
+    Deque<ResolvedDependency> stack = new ArrayDeque<>(firstLevelDependencies);
+    while (!stack.isEmpty()) {
+      ResolvedDependency node = stack.pop();
+      if (!ids.containsKey(node)) {
+        ids.put(node, nodes.size());
+        nodes.add(node);
+        node.getChildren().forEach(stack::push);
+      }
+    }
+
+    DependencyGraph graph = new DependencyGraph(nodes.size());
+    graph.mChildren[ROOT] = idsOf(firstLevelDependencies, ids);
+    graph.mParents[ROOT] = NONE;
+    for (int i = 1; i < nodes.size(); i++) {
+      ResolvedDependency node = nodes.get(i);
+      graph.mNames[i] = pool.intern(node.getName());
+      graph.mGroups[i] = pool.intern(node.getModuleGroup());
+      graph.mModules[i] = pool.intern(node.getModuleName());
+      graph.mVersions[i] = pool.intern(node.getModuleVersion());
+      graph.mChildren[i] = idsOf(node.getChildren(), ids);
+      // the root isn't reached from the first level dependencies
+      graph.mParents[i] = idsOf(node.getParents(), ids);
+    }
+    return graph;
+  }
+
+  private static int[] idsOf(Collection<ResolvedDependency> nodes, Map<ResolvedDependency, Integer> ids) {
+    if (nodes.isEmpty()) {
+      return NONE;
+    }
+    int[] result = new int[nodes.size()];
+    int i = 0;
+    for (ResolvedDependency node : nodes) {
+      result[i++] = ids.getOrDefault(node, ROOT);
+    }
+    return result;
+  }
+
+  /**
+   * @return number of nodes including the root
+   */
+  public int size() {
+    return mNames.length;
+  }
+
+  /**
+   * @param artifactName
+   *          the GAV (group:artifact:version)
+   * @return the first node with the name or -1 if there is none
+   */
+  public int indexOf(String artifactName) {
+    for (int i = 1; i < mNames.length; i++) {
+      if (mNames[i].equals(artifactName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public boolean isRoot(int node) {
+    return node == ROOT;
+  }
+
+  /**
+   * @param node
+   *          the node
+   * @return the GAV (group:artifact:version) or null for the root
+   */
+  public String getName(int node) {
+    return mNames[node];
+  }
+
+  public String getGroup(int node) {
+    return mGroups[node];
+  }
+
+  public String getModule(int node) {
+    return mModules[node];
+  }
+
+  public String getVersion(int node) {
+    return mVersions[node];
+  }
+
+  /**
+   * @param node
+   *          the node
+   * @return the children. Must not be modified.
+   */
+  public int[] getChildren(int node) {
+    return mChildren[node];
+  }
+
+  /**
+   * @param node
+   *          the node
+   * @return the parents, the first level dependencies have the root as parent. Must not be modified.
+   */
+  public int[] getParents(int node) {
+    return mParents[node];
+  }
+
+  /**
+   * Number of times nodes are reached when walking the graph from the first level dependencies and only walking each
+   * node once.
+   *
+   * @return number of nodes reached including nodes reached again via another path
+   */
+  public int getNodesReached() {
+    int reached = mChildren[ROOT].length;
+    for (int i = 1; i < mChildren.length; i++) {
+      reached += mChildren[i].length;
+    }
+    return reached;
+  }
+
+}
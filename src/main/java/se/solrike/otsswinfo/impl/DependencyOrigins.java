@@ -0,0 +1,103 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The projects' configurations, the origins, that each dependency is found in and the shortest path that introduces
+ * the dependency in any of them.
+ * <p>
+ * The origins are numbered in the order they are added and each dependency's origins are kept as a bit set over the
+ * numbers so a dependency found in many configurations still only needs a few words.
+ *
+ * @author Lucas Persson
+ */
+public class DependencyOrigins {
+
+  private final List<String> mNames = new ArrayList<>();
+  // the key is the artifact name in GAV format (group:artifact:version)
+  private final Map<String, Attribution> mAttributions = new HashMap<>();
+
+  /**
+   * @param projectPath
+   *          the project's path, e.g. <code>:app</code>
+   * @param configuration
+   *          the configuration's name
+   * @return the origin's name on the same format as Gradle uses for configurations, e.g.
+   *         <code>:app:runtimeClasspath</code>
+   */
+  public static String nameOf(String projectPath, String configuration) {
+    return (projectPath.endsWith(":") ? projectPath : projectPath + ":") + configuration;
+  }
+
+  /**
+   * Add an origin with the dependencies scanned in it.
+   *
+   * @param name
+   *          the origin's name, see {@link #nameOf(String, String)}
+   * @param dependencies
+   *          the dependencies found in the origin
+   * @return the origin's number
+   */
+  public int add(String name, Collection<ArtifactMetadata> dependencies) {
+    int origin = mNames.size();
+    mNames.add(name);
+    Map<DependencyGraph, int[]> pathParents = VersionSnapshotWriter.shortestPathParents(dependencies);
+    for (ArtifactMetadata metadata : dependencies) {
+      Attribution attribution = mAttributions.computeIfAbsent(metadata.artifactName, key -> new Attribution());
+      attribution.origins.set(origin);
+      if (metadata.graph != null) {
+        List<Integer> path = VersionSnapshotWriter.pathOf(metadata.graph, metadata.node,
+            pathParents.get(metadata.graph));
+        // the first origin wins if the paths are as short
+        if (attribution.path == null || path.size() < attribution.path.length) {
+          attribution.path = path.stream().map(metadata.graph::getName).toArray(String[]::new);
+        }
+      }
+    }
+    return origin;
+  }
+
+  /**
+   * @return number of origins
+   */
+  public int size() {
+    return mNames.size();
+  }
+
+  /**
+   * @param artifactName
+   *          the GAV (group:artifact:version)
+   * @return the names of the origins the dependency is found in, in the order the origins were added
+   */
+  public List<String> getOrigins(String artifactName) {
+    List<String> names = new ArrayList<>();
+    Attribution attribution = mAttributions.get(artifactName);
+    if (attribution != null) {
+      attribution.origins.stream().forEach(origin -> names.add(mNames.get(origin)));
+    }
+    return names;
+  }
+
+  /**
+   * @param artifactName
+   *          the GAV (group:artifact:version)
+   * @return the GAVs on the shortest path from a first level dependency to the dependency, both included. Empty if the
+   *         dependency isn't found.
+   */
+  public List<String> getPath(String artifactName) {
+    Attribution attribution = mAttributions.get(artifactName);
+    return attribution != null && attribution.path != null ? List.of(attribution.path) : List.of();
+  }
+
+  private static class Attribution {
+    final BitSet origins = new BitSet();
+    // null until a path is found
+    String[] path;
+  }
+
+}
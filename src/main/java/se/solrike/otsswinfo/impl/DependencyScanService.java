@@ -0,0 +1,85 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Build service that keeps the result of scanning the dependencies of a project's configuration.
+ * <p>
+ * It is shared by all tasks in the build so each configuration is only walked, and the metadata for its
+ * dependencies only built, once per build. The scanned metadata must not be modified, tasks shall use a copy.
+ *
+ * @author Lucas Persson
+ */
+public abstract class DependencyScanService implements BuildService<BuildServiceParameters.None> {
+
+  private final Map<String, List<ArtifactMetadata>> mScans = new ConcurrentHashMap<>();
+  private final StringPool mStringPool = new StringPool();
+
+  public StringPool getStringPool() {
+    return mStringPool;
+  }
+
+  /**
+   * Get the scanned dependencies for a project's configuration.
+   *
+   * @param projectPath
+   *          the path of the project
+   * @param configuration
+   *          name of the configuration
+   * @param excludeArtifactGroups
+   *          groups that were excluded from the scan
+   * @param scanner
+   *          scans the configuration in case it isn't already scanned
+   * @return unmodifiable list with the dependencies' metadata
+   */
+  public List<ArtifactMetadata> getScan(String projectPath, String configuration,
+      Collection<String> excludeArtifactGroups, Supplier<List<ArtifactMetadata>> scanner) {
+    return mScans.computeIfAbsent(key(projectPath, configuration, excludeArtifactGroups),
+        k -> List.copyOf(scanner.get()));
+  }
+
+  /**
+   * @param projectPath
+   *          the path of the project
+   * @param configuration
+   *          name of the configuration
+   * @param excludeArtifactGroups
+   *          groups that were excluded from the scan
+   * @return unmodifiable list with the dependencies' metadata or null if the configuration isn't scanned yet
+   */
+  public List<ArtifactMetadata> findScan(String projectPath, String configuration,
+      Collection<String> excludeArtifactGroups) {
+    return mScans.get(key(projectPath, configuration, excludeArtifactGroups));
+  }
+
+  /**
+   * Keep the scanned dependencies for a project's configuration unless another task already has scanned it.
+   *
+   * @param projectPath
+   *          the path of the project
+   * @param configuration
+   *          name of the configuration
+   * @param excludeArtifactGroups
+   *          groups that were excluded from the scan
+   * @param scanned
+   *          the scanned dependencies
+   * @return unmodifiable list with the dependencies' metadata that is kept
+   */
+  public List<ArtifactMetadata> putScan(String projectPath, String configuration,
+      Collection<String> excludeArtifactGroups, List<ArtifactMetadata> scanned) {
+    return mScans.computeIfAbsent(key(projectPath, configuration, excludeArtifactGroups), k -> List.copyOf(scanned));
+  }
+
+  private static String key(String projectPath, String configuration, Collection<String> excludeArtifactGroups) {
+    return projectPath + " " + configuration + " " + new TreeSet<>(excludeArtifactGroups);
+  }
+
+}
@@ -0,0 +1,100 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import groovy.json.JsonOutput;
+
+/**
+ * Writes compact JSON, without any white spaces, to a writer.
+ *
+ * @author Lucas Persson
+ */
+public class JsonSnapshotEncoder implements SnapshotEncoder {
+
+  private final Writer mWriter;
+  /**
+   * One entry per open object or array, true if it has no members yet.
+   */
+  private final Deque<Boolean> mFirst = new ArrayDeque<>();
+  private boolean mAfterName;
+
+  public JsonSnapshotEncoder(Writer writer) {
+    mWriter = writer;
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    beforeValue();
+    mWriter.write('{');
+    mFirst.push(true);
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    mFirst.pop();
+    mWriter.write('}');
+  }
+
+  @Override
+  public void beginArray() throws IOException {
+    beforeValue();
+    mWriter.write('[');
+    mFirst.push(true);
+  }
+
+  @Override
+  public void endArray() throws IOException {
+    mFirst.pop();
+    mWriter.write(']');
+  }
+
+  @Override
+  public void name(String name) throws IOException {
+    beforeValue();
+    mWriter.write(JsonOutput.toJson(name));
+    mWriter.write(':');
+    mAfterName = true;
+  }
+
+  @Override
+  public void value(String value) throws IOException {
+    beforeValue();
+    mWriter.write(value != null ? JsonOutput.toJson(value) : "null");
+  }
+
+  @Override
+  public void value(Boolean value) throws IOException {
+    beforeValue();
+    mWriter.write(String.valueOf(value));
+  }
+
+  @Override
+  public void value(long value) throws IOException {
+    beforeValue();
+    mWriter.write(Long.toString(value));
+  }
+
+  @Override
+  public void close() throws IOException {
+    mWriter.close();
+  }
+
+  private void beforeValue() throws IOException {
+    if (mAfterName) {
+      mAfterName = false;
+    }
+    else if (!mFirst.isEmpty()) {
+      if (Boolean.FALSE.equals(mFirst.peek())) {
+        mWriter.write(',');
+      }
+      else {
+        mFirst.pop();
+        mFirst.push(false);
+      }
+    }
+  }
+
+}
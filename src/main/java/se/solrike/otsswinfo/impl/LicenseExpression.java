@@ -0,0 +1,249 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A license expression as defined by SPDX, e.g. "EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0".
+ * <p>
+ * The operators AND, OR and WITH must be in upper case. A license name without any operators, e.g. "Apache License,
+ * Version 2.0", is a single license. The license names are mapped to SPDX identifiers when the name is known.
+ *
+ * @author Lucas Persson
+ */
+public abstract class LicenseExpression {
+
+  private static final String AND = "AND";
+  private static final String OR = "OR";
+  private static final String WITH = "WITH";
+
+  /**
+   * Evaluate the expression.
+   *
+   * @param isAllowed
+   *          tells if a single license, or a license with an exception on the format "license WITH exception", is
+   *          allowed
+   * @return true if the licenses are allowed according to the expression
+   */
+  public abstract boolean isAllowed(Predicate<String> isAllowed);
+
+  /**
+   * @return true if all license names in the expression are known, i.e. the expression is a valid SPDX expression
+   */
+  public abstract boolean isSpdx();
+
+  /**
+   * @return the expression with SPDX identifiers for the known license names
+   */
+  @Override
+  public abstract String toString();
+
+  /**
+   * Parse a license name or an SPDX expression. If the name or expression is malformed it is treated as a single
+   * license.
+   *
+   * @param license
+   *          license name or expression
+   * @param spdxLicenses
+   *          table with the SPDX identifiers for license names
+   * @return the parsed expression
+   */
+  public static LicenseExpression parse(String license, SpdxLicenses spdxLicenses) {
+    String spdx = spdxLicenses.toSpdx(license);
+    String expression = (spdx != null ? spdx : license.trim());
+    List<String> tokens = tokenize(expression);
+    if (tokens.contains(AND) || tokens.contains(OR) || tokens.contains(WITH)) {
+      Parser parser = new Parser(tokens, spdxLicenses);
+      LicenseExpression result = parser.parseOr();
+      if (parser.isValid()) {
+        return result;
+      }
+    }
+    return new Single(expression, null, spdxLicenses);
+  }
+
+  private static List<String> tokenize(String expression) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = new StringBuilder();
+    for (int i = 0; i < expression.length(); i++) {
+      char c = expression.charAt(i);
+      if (Character.isWhitespace(c) || c == '(' || c == ')') {
+        if (token.length() > 0) {
+          tokens.add(token.toString());
+          token.setLength(0);
+        }
+        if (c == '(' || c == ')') {
+          tokens.add(String.valueOf(c));
+        }
+      }
+      else {
+        token.append(c);
+      }
+    }
+    if (token.length() > 0) {
+      tokens.add(token.toString());
+    }
+    return tokens;
+  }
+
+  /**
+   * Recursive descent parser where OR has lower precedence than AND which has lower precedence than WITH.
+   */
+  private static class Parser {
+    private final List<String> mTokens;
+    private final SpdxLicenses mSpdxLicenses;
+    private int mPos;
+    private boolean mValid = true;
+
+    Parser(List<String> tokens, SpdxLicenses spdxLicenses) {
+      mTokens = tokens;
+      mSpdxLicenses = spdxLicenses;
+    }
+
+    boolean isValid() {
+      return mValid && mPos == mTokens.size();
+    }
+
+    LicenseExpression parseOr() {
+      List<LicenseExpression> operands = new ArrayList<>();
+      operands.add(parseAnd());
+      while (accept(OR)) {
+        operands.add(parseAnd());
+      }
+      return operands.size() == 1 ? operands.get(0) : new Or(operands);
+    }
+
+    private LicenseExpression parseAnd() {
+      List<LicenseExpression> operands = new ArrayList<>();
+      operands.add(parseWith());
+      while (accept(AND)) {
+        operands.add(parseWith());
+      }
+      return operands.size() == 1 ? operands.get(0) : new And(operands);
+    }
+
+    private LicenseExpression parseWith() {
+      if (accept("(")) {
+        LicenseExpression expression = parseOr();
+        mValid = mValid && accept(")");
+        return expression;
+      }
+      String license = parseName();
+      String exception = (accept(WITH) ? parseName() : null);
+      return new Single(license, exception, mSpdxLicenses);
+    }
+
+    /**
+     * A name might contain spaces, e.g. "Apache License, Version 2.0".
+     */
+    private String parseName() {
+      StringBuilder name = new StringBuilder();
+      while (mPos < mTokens.size() && !isOperator(mTokens.get(mPos))) {
+        if (name.length() > 0) {
+          name.append(' ');
+        }
+        name.append(mTokens.get(mPos++));
+      }
+      mValid = mValid && name.length() > 0;
+      return name.toString();
+    }
+
+    private boolean accept(String token) {
+      if (mPos < mTokens.size() && mTokens.get(mPos).equals(token)) {
+        mPos++;
+        return true;
+      }
+      return false;
+    }
+
+    private static boolean isOperator(String token) {
+      return token.equals(AND) || token.equals(OR) || token.equals(WITH) || token.equals("(") || token.equals(")");
+    }
+  }
+
+  private static class Single extends LicenseExpression {
+    private final String mLicense;
+    private final String mException;
+    private final boolean mSpdx;
+
+    Single(String license, String exception, SpdxLicenses spdxLicenses) {
+      mLicense = toSpdx(license, spdxLicenses);
+      mException = (exception != null ? toSpdx(exception, spdxLicenses) : null);
+      mSpdx = spdxLicenses.toSpdx(license) != null && (exception == null || spdxLicenses.toSpdx(exception) != null);
+    }
+
+    private static String toSpdx(String name, SpdxLicenses spdxLicenses) {
+      String spdx = spdxLicenses.toSpdx(name);
+      return spdx != null ? spdx : name;
+    }
+
+    /**
+     * A license with an exception is allowed if the combination is allowed or if the license itself is allowed.
+     */
+    @Override
+    public boolean isAllowed(Predicate<String> isAllowed) {
+      return (mException != null && isAllowed.test(toString())) || isAllowed.test(mLicense);
+    }
+
+    @Override
+    public boolean isSpdx() {
+      return mSpdx;
+    }
+
+    @Override
+    public String toString() {
+      return mException != null ? mLicense + " " + WITH + " " + mException : mLicense;
+    }
+  }
+
+  private static class And extends LicenseExpression {
+    private final List<LicenseExpression> mOperands;
+
+    And(List<LicenseExpression> operands) {
+      mOperands = operands;
+    }
+
+    @Override
+    public boolean isAllowed(Predicate<String> isAllowed) {
+      return mOperands.stream().allMatch(operand -> operand.isAllowed(isAllowed));
+    }
+
+    @Override
+    public boolean isSpdx() {
+      return mOperands.stream().allMatch(LicenseExpression::isSpdx);
+    }
+
+    @Override
+    public String toString() {
+      return mOperands.stream()
+          .map(operand -> operand instanceof Or ? "(" + operand + ")" : operand.toString())
+          .collect(Collectors.joining(" " + AND + " "));
+    }
+  }
+
+  private static class Or extends LicenseExpression {
+    private final List<LicenseExpression> mOperands;
+
+    Or(List<LicenseExpression> operands) {
+      mOperands = operands;
+    }
+
+    @Override
+    public boolean isAllowed(Predicate<String> isAllowed) {
+      return mOperands.stream().anyMatch(operand -> operand.isAllowed(isAllowed));
+    }
+
+    @Override
+    public boolean isSpdx() {
+      return mOperands.stream().allMatch(LicenseExpression::isSpdx);
+    }
+
+    @Override
+    public String toString() {
+      return mOperands.stream().map(LicenseExpression::toString).collect(Collectors.joining(" " + OR + " "));
+    }
+  }
+
+}
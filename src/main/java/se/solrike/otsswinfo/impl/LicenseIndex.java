@@ -0,0 +1,87 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Index of license names for exact lookups.
+ * <p>
+ * The names are normalized so that case, white spaces and a leading "The" don't matter, e.g. "The MIT License" and
+ * "MIT license" are the same license. Names with a known SPDX identifier are also indexed by the identifier so all
+ * names for the same license match each other, e.g. "ASL 2.0" and "The Apache Software License, Version 2.0". Other
+ * than that a license must match a name in the index exactly, so "GPL-2.0" does not match "LGPL-2.1".
+ *
+ * @author Lucas Persson
+ */
+public class LicenseIndex {
+
+  private static final Pattern WHITE_SPACES = Pattern.compile("\\s+");
+  private static final String THE = "the ";
+
+  private final Set<String> mLicenses = new HashSet<>();
+  private final SpdxLicenses mSpdxLicenses;
+
+  public LicenseIndex() {
+    this(SpdxLicenses.getDefault());
+  }
+
+  public LicenseIndex(SpdxLicenses spdxLicenses) {
+    mSpdxLicenses = spdxLicenses;
+  }
+
+  /**
+   * Add all license names in a text with one license name per line. Empty lines are ignored.
+   *
+   * @param licenses
+   *          text with one license name per line
+   */
+  public void addAll(String licenses) {
+    licenses.lines().forEach(this::add);
+  }
+
+  /**
+   * @param license
+   *          the license name. Empty names are ignored.
+   */
+  public void add(String license) {
+    String key = normalize(license);
+    if (!key.isEmpty()) {
+      mLicenses.add(key);
+      String spdx = mSpdxLicenses.toSpdx(license);
+      if (spdx != null) {
+        mLicenses.add(normalize(spdx));
+      }
+    }
+  }
+
+  /**
+   * @param license
+   *          the license name, might be null
+   * @return true if the license is in the index
+   */
+  public boolean contains(String license) {
+    if (license == null) {
+      return false;
+    }
+    String spdx = mSpdxLicenses.toSpdx(license);
+    return mLicenses.contains(normalize(license)) || (spdx != null && mLicenses.contains(normalize(spdx)));
+  }
+
+  /**
+   * @return number of names and SPDX identifiers in the index
+   */
+  public int size() {
+    return mLicenses.size();
+  }
+
+  static String normalize(String license) {
+    String key = WHITE_SPACES.matcher(license.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    if (key.startsWith(THE)) {
+      key = key.substring(THE.length());
+    }
+    return key;
+  }
+
+}
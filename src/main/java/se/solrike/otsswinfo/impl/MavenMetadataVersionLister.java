@@ -0,0 +1,238 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists the versions of modules by reading the <code>maven-metadata.xml</code> file in Maven repositories.
+ * <p>
+ * Only the listing is fetched, no module metadata for the individual versions. The files for all modules and
+ * repositories are fetched concurrently. Both http(s) and file repositories are supported.
+ *
+ * @author Lucas Persson
+ */
+public class MavenMetadataVersionLister {
+
+  private static final Logger sLogger = LoggerFactory.getLogger(MavenMetadataVersionLister.class);
+  private static final String METADATA_FILE = "maven-metadata.xml";
+  private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+  /**
+   * A Maven repository.
+   */
+  @SuppressWarnings("java:S1104")
+  public static class Repository {
+    public URI url;
+    /**
+     * Optional user name for basic authentication
+     */
+    public String username;
+    public String password;
+
+    public Repository(URI url) {
+      this.url = url;
+    }
+
+    @Override
+    public String toString() {
+      return url.toString();
+    }
+  }
+
+  private final List<Repository> mRepositories;
+  private HttpClient mHttpClient;
+
+  /**
+   * @param repositories
+   *          the repositories, in the order they are declared
+   */
+  public MavenMetadataVersionLister(List<Repository> repositories) {
+    mRepositories = List.copyOf(repositories);
+  }
+
+  public List<Repository> getRepositories() {
+    return mRepositories;
+  }
+
+  /**
+   * @param url
+   *          the repository's URL
+   * @return true if the repository's scheme is supported
+   */
+  public static boolean isSupported(URI url) {
+    String scheme = url.getScheme();
+    return "http".equals(scheme) || "https".equals(scheme) || "file".equals(scheme);
+  }
+
+  /**
+   * List the versions of the modules in all repositories.
+   *
+   * @param modules
+   *          the modules on format group:name
+   * @return the versions in any of the repositories with group:name as key. Modules not found in any repository are
+   *         missing. So are modules that a repository refused to list, e.g. since it requires authentication, as the
+   *         versions in that repository aren't known.
+   */
+  public Map<String, List<String>> listVersions(Collection<String> modules) {
+    Map<String, List<CompletableFuture<List<String>>>> requests = new HashMap<>();
+    for (String module : modules) {
+      List<CompletableFuture<List<String>>> moduleRequests = new ArrayList<>();
+      for (Repository repository : mRepositories) {
+        moduleRequests.add(fetchVersions(repository, module));
+      }
+      requests.put(module, moduleRequests);
+    }
+    Map<String, List<String>> versions = new HashMap<>();
+    requests.forEach((module, moduleRequests) -> {
+      Set<String> moduleVersions = new LinkedHashSet<>();
+      boolean refused = false;
+      for (CompletableFuture<List<String>> request : moduleRequests) {
+        List<String> repositoryVersions = request.join();
+        if (repositoryVersions == null) {
+          refused = true;
+        }
+        else {
+          moduleVersions.addAll(repositoryVersions);
+        }
+      }
+      if (!refused && !moduleVersions.isEmpty()) {
+        versions.put(module, new ArrayList<>(moduleVersions));
+      }
+    });
+    return versions;
+  }
+
+  /**
+   * @param module
+   *          on format group:name
+   * @return path relative to the repository root
+   */
+  static String metadataPath(String module) {
+    int colon = module.indexOf(':');
+    return module.substring(0, colon).replace('.', '/') + "/" + module.substring(colon + 1) + "/" + METADATA_FILE;
+  }
+
+  /**
+   * @param metadata
+   *          the content of a <code>maven-metadata.xml</code> file
+   * @return the versions listed under versioning/versions
+   * @throws XMLStreamException
+   *           if the file isn't well formed
+   */
+  static List<String> parseVersions(InputStream metadata) throws XMLStreamException {
+    List<String> versions = new ArrayList<>();
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    XMLStreamReader reader = factory.createXMLStreamReader(metadata);
+    try {
+      boolean inVersions = false;
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          if ("versions".equals(reader.getLocalName())) {
+            inVersions = true;
+          }
+          else if (inVersions && "version".equals(reader.getLocalName())) {
+            String version = reader.getElementText().trim();
+            if (!version.isEmpty()) {
+              versions.add(version);
+            }
+          }
+        }
+        else if (event == XMLStreamConstants.END_ELEMENT && "versions".equals(reader.getLocalName())) {
+          inVersions = false;
+        }
+      }
+    }
+    finally {
+      reader.close();
+    }
+    return versions;
+  }
+
+  /**
+   * @return the versions or null if the repository refused the request
+   */
+  private CompletableFuture<List<String>> fetchVersions(Repository repository, String module) {
+    String base = repository.url.toString();
+    URI uri = URI.create((base.endsWith("/") ? base : base + "/") + metadataPath(module));
+    if ("file".equals(uri.getScheme())) {
+      try (InputStream in = Files.newInputStream(Paths.get(uri))) {
+        return CompletableFuture.completedFuture(parseVersions(in));
+      }
+      catch (NoSuchFileException e) {
+        return CompletableFuture.completedFuture(List.of());
+      }
+      catch (IOException | XMLStreamException e) {
+        sLogger.info("Not possible to read {}", uri, e);
+        return CompletableFuture.completedFuture(List.of());
+      }
+    }
+    HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET();
+    if (repository.username != null) {
+      String credentials = repository.username + ":" + (repository.password != null ? repository.password : "");
+      request.header("Authorization",
+          "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+    }
+    return getHttpClient().sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream())
+        .thenApply(response -> {
+          try (InputStream in = response.body()) {
+            if (response.statusCode() == 401 || response.statusCode() == 403) {
+              sLogger.info("Not allowed to read {}, status {}", uri, response.statusCode());
+              return null;
+            }
+            if (response.statusCode() != 200) {
+              sLogger.debug("No {} in {}, status {}", METADATA_FILE, uri, response.statusCode());
+              return List.<String> of();
+            }
+            return parseVersions(in);
+          }
+          catch (IOException | XMLStreamException e) {
+            throw new CompletionException(e);
+          }
+        })
+        .exceptionally(e -> {
+          sLogger.info("Not possible to read {}", uri, e);
+          return List.of();
+        });
+  }
+
+  private synchronized HttpClient getHttpClient() {
+    if (mHttpClient == null) {
+      mHttpClient = HttpClient.newBuilder()
+          .connectTimeout(TIMEOUT)
+          .followRedirects(HttpClient.Redirect.NORMAL)
+          .build();
+    }
+    return mHttpClient;
+  }
+
+}
@@ -0,0 +1,199 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Extract the description, first license, project URL and parent from Maven POM files with a streaming StAX parser.
+ * <p>
+ * Only the elements directly under the project element are looked at and the rest of the POM isn't read once they all
+ * have been found. E.g. a BOM with a huge dependencyManagement section after the license info is not read to the end.
+ * <p>
+ * The text buffer is reused for all POMs so an instance must only be used by one thread at the time. The parser
+ * factory is configured once and shared by all instances.
+ *
+ * @author Lucas Persson
+ */
+public class PomExtractor {
+
+  private static final String DESCRIPTION = "description";
+  private static final String URL = "url";
+  private static final String LICENSES = "licenses";
+  private static final String PARENT = "parent";
+
+  // thread safe once configured
+  private static final XMLInputFactory sFactory = createFactory();
+
+  private final StringBuilder mText = new StringBuilder(256);
+
+  /**
+   * @param pomFile
+   *          the POM file
+   * @return the metadata in the POM
+   * @throws IOException
+   *           if the file can't be read
+   * @throws XMLStreamException
+   *           if the POM isn't well formed XML
+   */
+  public PomMetadata extract(File pomFile) throws IOException, XMLStreamException {
+    try (InputStream in = Files.newInputStream(pomFile.toPath())) {
+      return extract(in);
+    }
+  }
+
+  /**
+   * @param pom
+   *          the POM. The encoding is taken from the XML declaration.
+   * @return the metadata in the POM
+   * @throws XMLStreamException
+   *           if the POM isn't well formed XML
+   */
+  public PomMetadata extract(InputStream pom) throws XMLStreamException {
+    XMLStreamReader reader = sFactory.createXMLStreamReader(pom);
+    try {
+      return extract(reader);
+    }
+    finally {
+      reader.close();
+    }
+  }
+
+  private PomMetadata extract(XMLStreamReader reader) throws XMLStreamException {
+    PomMetadata pomMetadata = new PomMetadata();
+    boolean descriptionFound = false;
+    boolean urlFound = false;
+    boolean licensesFound = false;
+    boolean parentFound = false;
+    // the element directly under project that is being read, null if it shall be skipped
+    String section = null;
+    // the element in licenses/license or parent whose text is being read
+    String field = null;
+    int fieldDepth = 0;
+    int licenseCount = 0;
+    boolean parentHasText = false;
+    String parentGroup = "";
+    String parentName = "";
+    String parentVersion = "";
+    int depth = 0;
+
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+        String name = reader.getLocalName();
+        if (depth == 2) {
+          section = null;
+          if (DESCRIPTION.equals(name) && !descriptionFound || URL.equals(name) && !urlFound
+              || LICENSES.equals(name) && !licensesFound || PARENT.equals(name) && !parentFound) {
+            section = name;
+            mText.setLength(0);
+          }
+        }
+        else if (LICENSES.equals(section) && depth == 3 && "license".equals(name)) {
+          licenseCount++;
+        }
+        else if (LICENSES.equals(section) && depth == 4 && licenseCount == 1
+            && ("name".equals(name) || URL.equals(name))
+            || PARENT.equals(section) && depth == 3
+                && ("groupId".equals(name) || "artifactId".equals(name) || "version".equals(name))) {
+          field = name;
+          fieldDepth = depth;
+          mText.setLength(0);
+        }
+      }
+      else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+        if (DESCRIPTION.equals(section) || URL.equals(section) || field != null) {
+          mText.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+        }
+        if (PARENT.equals(section) && !reader.isWhiteSpace()) {
+          parentHasText = true;
+        }
+      }
+      else if (event == XMLStreamConstants.END_ELEMENT) {
+        if (field != null && depth == fieldDepth) {
+          String text = mText.toString().trim();
+          if (LICENSES.equals(section)) {
+            if ("name".equals(field)) {
+              pomMetadata.license = text;
+            }
+            else {
+              pomMetadata.licenseUrl = text;
+            }
+          }
+          else if ("groupId".equals(field)) {
+            parentGroup = text;
+          }
+          else if ("artifactId".equals(field)) {
+            parentName = text;
+          }
+          else {
+            parentVersion = text;
+          }
+          field = null;
+        }
+        else if (LICENSES.equals(section) && depth == 3 && licenseCount == 1 && pomMetadata.license == null) {
+          // the first license without a name
+          pomMetadata.license = "";
+        }
+        else if (section != null && depth == 2) {
+          if (DESCRIPTION.equals(section)) {
+            descriptionFound = true;
+            setDescription(pomMetadata);
+          }
+          else if (URL.equals(section)) {
+            urlFound = true;
+            String url = mText.toString().trim();
+            if (!url.isEmpty()) {
+              pomMetadata.url = url;
+            }
+          }
+          else if (LICENSES.equals(section)) {
+            licensesFound = true;
+          }
+          else {
+            parentFound = true;
+            if (parentHasText) {
+              pomMetadata.parent = parentGroup + ":" + parentName + ":" + parentVersion;
+            }
+          }
+          section = null;
+          if (descriptionFound && urlFound && licensesFound && parentFound) {
+            // no need to read the rest of the POM
+            break;
+          }
+        }
+        depth--;
+      }
+    }
+    if (pomMetadata.license != null && pomMetadata.licenseUrl == null) {
+      pomMetadata.licenseUrl = "";
+    }
+    return pomMetadata;
+  }
+
+  private void setDescription(PomMetadata pomMetadata) {
+    String description = mText.toString().trim();
+    if (!description.isEmpty()) {
+      // remove newlines and multiple spaces
+      description = description.replaceAll("\\s+", " ");
+      if (!description.equals("${project.name}")) {
+        pomMetadata.description = description;
+      }
+    }
+  }
+
+  private static XMLInputFactory createFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+}
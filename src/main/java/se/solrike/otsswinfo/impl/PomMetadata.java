@@ -0,0 +1,34 @@
+package se.solrike.otsswinfo.impl;
+
+/**
+ * The metadata extracted from one single Maven POM file. I.e. nothing is inherited from the parent POM.
+ *
+ * @author Lucas Persson
+ */
+@SuppressWarnings("java:S1104")
+public class PomMetadata {
+
+  /**
+   * description without newlines and multiple spaces. null if missing.
+   */
+  public String description;
+  /**
+   * name of the first license. null if the POM doesn't have any license.
+   */
+  public String license;
+  public String licenseUrl;
+  /**
+   * project's URL. null if missing.
+   */
+  public String url;
+  /**
+   * the parent POM as GAV (group:moduleName:version). null if the POM doesn't have a parent.
+   */
+  public String parent;
+
+  @Override
+  public String toString() {
+    return "PomMetadata [license=" + license + ", url=" + url + ", parent=" + parent + "]";
+  }
+
+}
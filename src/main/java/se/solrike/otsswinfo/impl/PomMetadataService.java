@@ -0,0 +1,99 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+/**
+ * Build service that keeps the metadata of parsed POM files in memory during the build.
+ * <p>
+ * It is shared by all tasks in the build so each POM, e.g. a common parent POM, is only resolved and parsed once per
+ * build. The persistent {@link PomMetadataCache} is loaded when first needed and saved when the build is finished.
+ *
+ * @author Lucas Persson
+ */
+public abstract class PomMetadataService implements BuildService<PomMetadataService.Params>, AutoCloseable {
+
+  public interface Params extends BuildServiceParameters {
+    /**
+     * Directory for the persistent cache.
+     *
+     * @return the cache directory
+     */
+    DirectoryProperty getCacheDir();
+  }
+
+  /**
+   * The key in the map is the POM's GAV (group:artifact:version). Empty if the POM couldn't be resolved or parsed.
+   */
+  private final Map<String, Optional<PomMetadata>> mPomMetadata = new ConcurrentHashMap<>();
+  private PomMetadataCache mPomMetadataCache;
+
+  /**
+   * Get the metadata for POMs.
+   *
+   * @param artifactNames
+   *          the POMs' GAV (group:artifact:version)
+   * @param pomReader
+   *          function that resolves and parses the POMs that aren't already known. POMs that couldn't be resolved or
+   *          parsed shall be missing in the returned map.
+   * @return map with the GAV as key. POMs that couldn't be resolved or parsed are missing.
+   */
+  public Map<String, PomMetadata> getPomMetadata(Collection<String> artifactNames,
+      Function<Collection<String>, Map<String, PomMetadata>> pomReader) {
+
+    List<String> unknown = new ArrayList<>();
+    for (String artifactName : artifactNames) {
+      if (!mPomMetadata.containsKey(artifactName)) {
+        PomMetadata pomMetadata = getPomMetadataCache().get(artifactName);
+        if (pomMetadata != null) {
+          mPomMetadata.putIfAbsent(artifactName, Optional.of(pomMetadata));
+        }
+        else {
+          unknown.add(artifactName);
+        }
+      }
+    }
+
+    if (!unknown.isEmpty()) {
+      Map<String, PomMetadata> read = pomReader.apply(unknown);
+      for (String artifactName : unknown) {
+        PomMetadata pomMetadata = read.get(artifactName);
+        if (pomMetadata != null) {
+          getPomMetadataCache().put(artifactName, pomMetadata);
+        }
+        mPomMetadata.putIfAbsent(artifactName, Optional.ofNullable(pomMetadata));
+      }
+    }
+
+    Map<String, PomMetadata> result = new HashMap<>();
+    for (String artifactName : artifactNames) {
+      mPomMetadata.get(artifactName).ifPresent(pomMetadata -> result.put(artifactName, pomMetadata));
+    }
+    return result;
+  }
+
+  protected synchronized PomMetadataCache getPomMetadataCache() {
+    if (mPomMetadataCache == null) {
+      mPomMetadataCache = new PomMetadataCache(getParameters().getCacheDir().getAsFile().get());
+    }
+    return mPomMetadataCache;
+  }
+
+  @Override
+  public void close() {
+    if (mPomMetadataCache != null) {
+      mPomMetadataCache.save();
+    }
+  }
+
+}
@@ -0,0 +1,478 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Writes a software bill of materials (SBOM) in CycloneDX 1.4 JSON or SPDX 2.3 JSON.
+ * <p>
+ * The components are the dependencies in the report and the dependency relationships are taken from the resolved
+ * dependency graphs. Dependencies excluded from the report, e.g. the project's own modules, are skipped in the
+ * relationships so their dependencies are related to the closest included dependency, or to the project.
+ * <p>
+ * License names are mapped to SPDX identifiers. Licenses that can't be mapped are written as names in CycloneDX and as
+ * NOASSERTION in SPDX since SPDX only allows identifiers.
+ *
+ * @author Lucas Persson
+ */
+public class SbomWriter {
+
+  public static final String FORMAT_CYCLONEDX = "cyclonedx";
+  public static final String FORMAT_SPDX = "spdx";
+  public static final List<String> FORMATS = List.of(FORMAT_CYCLONEDX, FORMAT_SPDX);
+  public static final String CYCLONEDX_FILE_NAME = "sbom.cdx.json";
+  public static final String SPDX_FILE_NAME = "sbom.spdx.json";
+
+  private static final String TOOL_NAME = "se.solrike.otsswinfo";
+  private static final String NOASSERTION = "NOASSERTION";
+  private static final String PROJECT_REF = "project";
+
+  private final String mGroup;
+  private final String mName;
+  private final String mVersion;
+  private final List<ArtifactMetadata> mDependencies;
+  private final SpdxLicenses mSpdxLicenses;
+  /**
+   * The project's direct dependencies, GAV.
+   */
+  private final Set<String> mDirect = new TreeSet<>();
+  /**
+   * Key is GAV and value are the GAVs of the direct dependencies.
+   */
+  private final Map<String, Set<String>> mDependsOn = new LinkedHashMap<>();
+  /**
+   * Key is GAV and value is the SPDX element identifier, unique in the document.
+   */
+  private final Map<String, String> mSpdxIds = new HashMap<>();
+  private final Set<String> mUsedSpdxIds = new HashSet<>();
+
+  /**
+   * @param group
+   *          the project's group
+   * @param name
+   *          the project's name
+   * @param version
+   *          the project's version
+   * @param dependencies
+   *          the dependencies in the order they shall be written
+   */
+  public SbomWriter(String group, String name, String version, List<ArtifactMetadata> dependencies) {
+    mGroup = group;
+    mName = name;
+    mVersion = version;
+    mDependencies = dependencies;
+    mSpdxLicenses = SpdxLicenses.getDefault();
+    collectRelationships();
+    // assigned in the dependencies' order so the identifiers are the same each time
+    dependencies.forEach(metadata -> spdxIdOf(metadata.artifactName));
+  }
+
+  /**
+   * @param format
+   *          cyclonedx or spdx
+   * @return the SBOM's file name
+   */
+  public static String fileName(String format) {
+    if (FORMAT_CYCLONEDX.equals(format)) {
+      return CYCLONEDX_FILE_NAME;
+    }
+    else if (FORMAT_SPDX.equals(format)) {
+      return SPDX_FILE_NAME;
+    }
+    throw new IllegalArgumentException("Unknown SBOM format '" + format + "', use one of " + FORMATS);
+  }
+
+  /**
+   * @param file
+   *          the SBOM file
+   * @param format
+   *          cyclonedx or spdx
+   */
+  public void write(File file, String format) {
+    try (SnapshotEncoder encoder = new JsonSnapshotEncoder(
+        Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+      if (FORMAT_CYCLONEDX.equals(format)) {
+        writeCycloneDx(encoder);
+      }
+      else if (FORMAT_SPDX.equals(format)) {
+        writeSpdx(encoder);
+      }
+      else {
+        throw new IllegalArgumentException("Unknown SBOM format '" + format + "', use one of " + FORMATS);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Not possible to write " + file, e);
+    }
+  }
+
+  void writeCycloneDx(SnapshotEncoder encoder) throws IOException {
+    encoder.beginObject();
+    encoder.name("bomFormat");
+    encoder.value("CycloneDX");
+    encoder.name("specVersion");
+    encoder.value("1.4");
+    encoder.name("serialNumber");
+    encoder.value("urn:uuid:" + UUID.randomUUID());
+    encoder.name("version");
+    encoder.value(1);
+    encoder.name("metadata");
+    encoder.beginObject();
+    encoder.name("timestamp");
+    encoder.value(timestamp());
+    encoder.name("tools");
+    encoder.beginArray();
+    encoder.beginObject();
+    encoder.name("name");
+    encoder.value(TOOL_NAME);
+    encoder.endObject();
+    encoder.endArray();
+    encoder.name("component");
+    encoder.beginObject();
+    encoder.name("type");
+    encoder.value("application");
+    encoder.name("bom-ref");
+    encoder.value(PROJECT_REF);
+    writeNonNull(encoder, "group", mGroup);
+    encoder.name("name");
+    encoder.value(mName);
+    writeNonNull(encoder, "version", mVersion);
+    encoder.endObject();
+    encoder.endObject();
+
+    encoder.name("components");
+    encoder.beginArray();
+    for (ArtifactMetadata metadata : mDependencies) {
+      writeCycloneDxComponent(encoder, metadata);
+    }
+    encoder.endArray();
+
+    encoder.name("dependencies");
+    encoder.beginArray();
+    writeCycloneDxDependency(encoder, PROJECT_REF, mDirect);
+    for (Map.Entry<String, Set<String>> entry : mDependsOn.entrySet()) {
+      writeCycloneDxDependency(encoder, purlOf(entry.getKey()), entry.getValue());
+    }
+    encoder.endArray();
+    encoder.endObject();
+  }
+
+  private void writeCycloneDxComponent(SnapshotEncoder encoder, ArtifactMetadata metadata) throws IOException {
+    String purl = purlOf(metadata.artifactName);
+    encoder.beginObject();
+    encoder.name("type");
+    encoder.value("library");
+    encoder.name("bom-ref");
+    encoder.value(purl);
+    encoder.name("group");
+    encoder.value(metadata.group);
+    encoder.name("name");
+    encoder.value(metadata.name);
+    encoder.name("version");
+    encoder.value(metadata.version);
+    if (metadata.description != null && !metadata.description.isEmpty()) {
+      encoder.name("description");
+      encoder.value(metadata.description);
+    }
+    if (metadata.license != null) {
+      encoder.name("licenses");
+      encoder.beginArray();
+      encoder.beginObject();
+      LicenseExpression expression = LicenseExpression.parse(metadata.license, mSpdxLicenses);
+      String spdx = expression.toString();
+      if (expression.isSpdx() && spdx.indexOf(' ') > 0) {
+        encoder.name("expression");
+        encoder.value(spdx);
+      }
+      else {
+        encoder.name("license");
+        encoder.beginObject();
+        encoder.name(expression.isSpdx() ? "id" : "name");
+        encoder.value(expression.isSpdx() ? spdx : metadata.license);
+        writeNonNull(encoder, "url", metadata.licenseUrl);
+        encoder.endObject();
+      }
+      encoder.endObject();
+      encoder.endArray();
+    }
+    encoder.name("purl");
+    encoder.value(purl);
+    if (metadata.url != null) {
+      encoder.name("externalReferences");
+      encoder.beginArray();
+      encoder.beginObject();
+      encoder.name("type");
+      encoder.value("website");
+      encoder.name("url");
+      encoder.value(metadata.url);
+      encoder.endObject();
+      encoder.endArray();
+    }
+    encoder.endObject();
+  }
+
+  private static void writeCycloneDxDependency(SnapshotEncoder encoder, String ref, Set<String> dependsOn)
+      throws IOException {
+    encoder.beginObject();
+    encoder.name("ref");
+    encoder.value(ref);
+    encoder.name("dependsOn");
+    encoder.beginArray();
+    for (String gav : dependsOn) {
+      encoder.value(purlOf(gav));
+    }
+    encoder.endArray();
+    encoder.endObject();
+  }
+
+  void writeSpdx(SnapshotEncoder encoder) throws IOException {
+    String projectId = "SPDXRef-" + PROJECT_REF;
+    encoder.beginObject();
+    encoder.name("spdxVersion");
+    encoder.value("SPDX-2.3");
+    encoder.name("dataLicense");
+    encoder.value("CC0-1.0");
+    encoder.name("SPDXID");
+    encoder.value("SPDXRef-DOCUMENT");
+    encoder.name("name");
+    encoder.value(mVersion != null ? mName + "-" + mVersion : mName);
+    encoder.name("documentNamespace");
+    encoder.value("https://spdx.org/spdxdocs/" + sanitize(mName) + "-" + UUID.randomUUID());
+    encoder.name("creationInfo");
+    encoder.beginObject();
+    encoder.name("created");
+    encoder.value(timestamp());
+    encoder.name("creators");
+    encoder.beginArray();
+    encoder.value("Tool: " + TOOL_NAME);
+    encoder.endArray();
+    encoder.endObject();
+
+    encoder.name("packages");
+    encoder.beginArray();
+    encoder.beginObject();
+    encoder.name("SPDXID");
+    encoder.value(projectId);
+    encoder.name("name");
+    encoder.value(mName);
+    writeNonNull(encoder, "versionInfo", mVersion);
+    encoder.name("downloadLocation");
+    encoder.value(NOASSERTION);
+    encoder.name("filesAnalyzed");
+    encoder.value(false);
+    encoder.endObject();
+    for (ArtifactMetadata metadata : mDependencies) {
+      writeSpdxPackage(encoder, metadata);
+    }
+    encoder.endArray();
+
+    encoder.name("relationships");
+    encoder.beginArray();
+    writeSpdxRelationship(encoder, "SPDXRef-DOCUMENT", "DESCRIBES", projectId);
+    for (String gav : mDirect) {
+      writeSpdxRelationship(encoder, projectId, "DEPENDS_ON", spdxIdOf(gav));
+    }
+    for (Map.Entry<String, Set<String>> entry : mDependsOn.entrySet()) {
+      for (String gav : entry.getValue()) {
+        writeSpdxRelationship(encoder, spdxIdOf(entry.getKey()), "DEPENDS_ON", spdxIdOf(gav));
+      }
+    }
+    encoder.endArray();
+    encoder.endObject();
+  }
+
+  private void writeSpdxPackage(SnapshotEncoder encoder, ArtifactMetadata metadata) throws IOException {
+    encoder.beginObject();
+    encoder.name("SPDXID");
+    encoder.value(spdxIdOf(metadata.artifactName));
+    encoder.name("name");
+    encoder.value(metadata.group + ":" + metadata.name);
+    encoder.name("versionInfo");
+    encoder.value(metadata.version);
+    encoder.name("downloadLocation");
+    encoder.value(NOASSERTION);
+    encoder.name("filesAnalyzed");
+    encoder.value(false);
+    encoder.name("homepage");
+    encoder.value(metadata.url != null ? metadata.url : NOASSERTION);
+    encoder.name("licenseConcluded");
+    encoder.value(NOASSERTION);
+    encoder.name("licenseDeclared");
+    LicenseExpression expression = metadata.license != null
+        ? LicenseExpression.parse(metadata.license, mSpdxLicenses)
+        : null;
+    encoder.value(expression != null && expression.isSpdx() ? expression.toString() : NOASSERTION);
+    encoder.name("copyrightText");
+    encoder.value(NOASSERTION);
+    if (metadata.description != null && !metadata.description.isEmpty()) {
+      encoder.name("description");
+      encoder.value(metadata.description);
+    }
+    encoder.name("externalRefs");
+    encoder.beginArray();
+    encoder.beginObject();
+    encoder.name("referenceCategory");
+    encoder.value("PACKAGE-MANAGER");
+    encoder.name("referenceType");
+    encoder.value("purl");
+    encoder.name("referenceLocator");
+    encoder.value(purlOf(metadata.artifactName));
+    encoder.endObject();
+    encoder.endArray();
+    encoder.endObject();
+  }
+
+  private static void writeSpdxRelationship(SnapshotEncoder encoder, String element, String type, String related)
+      throws IOException {
+    encoder.beginObject();
+    encoder.name("spdxElementId");
+    encoder.value(element);
+    encoder.name("relationshipType");
+    encoder.value(type);
+    encoder.name("relatedSpdxElement");
+    encoder.value(related);
+    encoder.endObject();
+  }
+
+  private static void writeNonNull(SnapshotEncoder encoder, String name, String value) throws IOException {
+    if (value != null) {
+      encoder.name(name);
+      encoder.value(value);
+    }
+  }
+
+  /**
+   * Collect the relationships between the included dependencies with one walk over each of the graphs.
+   */
+  private void collectRelationships() {
+    Set<String> included = new LinkedHashSet<>();
+    // the nodes to start from in each graph
+    Map<DependencyGraph, List<Integer>> startNodes = new IdentityHashMap<>();
+    for (ArtifactMetadata metadata : mDependencies) {
+      included.add(metadata.artifactName);
+      mDependsOn.put(metadata.artifactName, new TreeSet<>());
+      if (metadata.graph != null) {
+        startNodes.computeIfAbsent(metadata.graph, graph -> new ArrayList<>()).add(metadata.node);
+      }
+    }
+    startNodes.forEach((graph, nodes) -> collectRelationships(graph, nodes, included));
+  }
+
+  /**
+   * Walk from the nodes up to the root and collect the relationships of the included dependencies on the way.
+   */
+  private void collectRelationships(DependencyGraph graph, List<Integer> nodes, Set<String> included) {
+    BitSet visited = new BitSet(graph.size());
+    Deque<Integer> stack = new ArrayDeque<>();
+    for (int node : nodes) {
+      if (!visited.get(node)) {
+        visited.set(node);
+        stack.push(node);
+      }
+    }
+    while (!stack.isEmpty()) {
+      int node = stack.pop();
+      if (graph.isRoot(node)) {
+        mDirect.addAll(includedChildren(graph, node, included));
+      }
+      for (int parent : graph.getParents(node)) {
+        if (!visited.get(parent)) {
+          visited.set(parent);
+          stack.push(parent);
+        }
+      }
+      if (included.contains(graph.getName(node))) {
+        mDependsOn.get(graph.getName(node)).addAll(includedChildren(graph, node, included));
+      }
+    }
+  }
+
+  /**
+   * The included children of the node. The children of excluded children, e.g. the project's own modules, are
+   * included instead of the excluded child.
+   */
+  private static Collection<String> includedChildren(DependencyGraph graph, int node, Set<String> included) {
+    Set<String> children = new TreeSet<>();
+    BitSet visited = new BitSet(graph.size());
+    Deque<Integer> stack = new ArrayDeque<>();
+    for (int child : graph.getChildren(node)) {
+      stack.push(child);
+    }
+    while (!stack.isEmpty()) {
+      int child = stack.pop();
+      if (!visited.get(child)) {
+        visited.set(child);
+        if (included.contains(graph.getName(child))) {
+          children.add(graph.getName(child));
+        }
+        else {
+          for (int grandChild : graph.getChildren(child)) {
+            stack.push(grandChild);
+          }
+        }
+      }
+    }
+    if (!graph.isRoot(node)) {
+      children.remove(graph.getName(node));
+    }
+    return children;
+  }
+
+  /**
+   * @param gav
+   *          group:name:version
+   * @return the package URL, e.g. pkg:maven/org.slf4j/slf4j-api@1.7.30
+   */
+  static String purlOf(String gav) {
+    String[] parts = gav.split(":");
+    return "pkg:maven/" + parts[0] + "/" + parts[1] + (parts.length > 2 ? "@" + parts[2] : "");
+  }
+
+  /**
+   * Characters that aren't allowed are replaced so different GAVs can give the same identifier, e.g. a_b:c:1 and
+   * a-b:c:1. A number is then added to the identifiers after the first.
+   *
+   * @param gav
+   *          group:name:version
+   * @return SPDX element identifier, which may only contain letters, numbers, . and -
+   */
+  String spdxIdOf(String gav) {
+    return mSpdxIds.computeIfAbsent(gav, key -> {
+      String id = "SPDXRef-" + sanitize(key);
+      String unique = id;
+      for (int i = 2; !mUsedSpdxIds.add(unique); i++) {
+        unique = id + "-" + i;
+      }
+      return unique;
+    });
+  }
+
+  private static String sanitize(String text) {
+    return text.replaceAll("[^A-Za-z0-9.\\-]", "-");
+  }
+
+  private static String timestamp() {
+    return Instant.now().truncatedTo(ChronoUnit.SECONDS).toString();
+  }
+
+}
@@ -0,0 +1,50 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streaming encoder for the snapshot formats. Objects and arrays are written as they are traversed so the whole
+ * document is never held in memory.
+ *
+ * @author Lucas Persson
+ */
+public interface SnapshotEncoder extends Closeable {
+
+  void beginObject() throws IOException;
+
+  void endObject() throws IOException;
+
+  void beginArray() throws IOException;
+
+  void endArray() throws IOException;
+
+  /**
+   * Write the name of the next member in the current object.
+   *
+   * @param name
+   *          the member name
+   * @throws IOException
+   *           if not possible to write
+   */
+  void name(String name) throws IOException;
+
+  /**
+   * @param value
+   *          the value, or null
+   * @throws IOException
+   *           if not possible to write
+   */
+  void value(String value) throws IOException;
+
+  /**
+   * @param value
+   *          the value, or null
+   * @throws IOException
+   *           if not possible to write
+   */
+  void value(Boolean value) throws IOException;
+
+  void value(long value) throws IOException;
+
+}
@@ -0,0 +1,83 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Table that maps the license names used in POM files to SPDX license identifiers or expressions, e.g. "The Apache
+ * Software License, Version 2.0" to "Apache-2.0".
+ * <p>
+ * The default table is read from <code>spdxLicenseAliases.txt</code> and compiled into a hash map once, when first
+ * used, and then shared by all tasks.
+ *
+ * @author Lucas Persson
+ */
+public class SpdxLicenses {
+
+  static final String ALIASES_FILE = "spdxLicenseAliases.txt";
+
+  private static class DefaultHolder {
+    static final SpdxLicenses DEFAULT = load();
+  }
+
+  /**
+   * The key is the normalized name, see {@link LicenseIndex#normalize(String)}.
+   */
+  private final Map<String, String> mSpdxByName = new HashMap<>();
+
+  /**
+   * @return the table read from the plugin's resource
+   */
+  public static SpdxLicenses getDefault() {
+    return DefaultHolder.DEFAULT;
+  }
+
+  /**
+   * @param lines
+   *          groups of lines separated with empty lines. The first line in a group is the SPDX identifier or expression
+   *          and the following lines are the names used for it. Lines starting with # are comments.
+   */
+  SpdxLicenses(List<String> lines) {
+    String spdx = null;
+    for (String line : lines) {
+      String name = line.trim();
+      if (name.isEmpty()) {
+        spdx = null;
+      }
+      else if (!name.startsWith("#")) {
+        if (spdx == null) {
+          spdx = name;
+        }
+        mSpdxByName.put(LicenseIndex.normalize(name), spdx);
+      }
+    }
+  }
+
+  /**
+   * @param name
+   *          license name, e.g. from a POM file
+   * @return the SPDX identifier or expression, or null if the name is unknown
+   */
+  public String toSpdx(String name) {
+    return mSpdxByName.get(LicenseIndex.normalize(name));
+  }
+
+  private static SpdxLicenses load() {
+    try (InputStream in = SpdxLicenses.class.getResourceAsStream(ALIASES_FILE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      return new SpdxLicenses(reader.lines().collect(Collectors.toList()));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
@@ -0,0 +1,35 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of strings so equal strings, e.g. the same license name or group in many dependencies, are only kept once.
+ * <p>
+ * Unlike {@link String#intern()} the pool is dropped together with its owner, e.g. at the end of the build. It can be
+ * used by several threads.
+ *
+ * @author Lucas Persson
+ */
+public class StringPool {
+
+  private final Map<String, String> mStrings = new ConcurrentHashMap<>();
+
+  /**
+   * @param value
+   *          the string, might be null
+   * @return the pooled string that is equal to the value or null if the value is null
+   */
+  public String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    String pooled = mStrings.putIfAbsent(value, value);
+    return pooled != null ? pooled : value;
+  }
+
+  public int size() {
+    return mStrings.size();
+  }
+
+}
@@ -0,0 +1,156 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers per phase and counters for a task execution. The phases and counters are kept in the order they are first
+ * used.
+ * <p>
+ * The metrics are written as JSON so they can be tracked between builds:
+ *
+ * <pre>
+ * {"formatVersion":1,"task":":versionReport","totalMs":1234,"phasesMs":{"scanDependencies":1000,...},
+ * "counters":{"pomsResolved":12,...}}
+ * </pre>
+ *
+ * @author Lucas Persson
+ */
+public class TaskMetrics {
+
+  public static final int FORMAT_VERSION = 1;
+  public static final String FILE_NAME_SUFFIX = "-metrics.json";
+
+  private final long mStart = System.nanoTime();
+  private final Map<String, Long> mPhaseNanos = new LinkedHashMap<>();
+  private final Map<String, Long> mCounters = new LinkedHashMap<>();
+
+  /**
+   * Time a phase. Phases with the same name are added up, time spent in nested phases is included in the outer phase.
+   *
+   * @param phase
+   *          the phase's name
+   * @param action
+   *          the phase
+   */
+  public void time(String phase, Runnable action) {
+    time(phase, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * @see #time(String, Runnable)
+   * @param <T>
+   *          the phase's result type
+   * @param phase
+   *          the phase's name
+   * @param action
+   *          the phase
+   * @return the phase's result
+   */
+  public <T> T time(String phase, Supplier<T> action) {
+    long start = System.nanoTime();
+    try {
+      return action.get();
+    }
+    finally {
+      addTime(phase, System.nanoTime() - start);
+    }
+  }
+
+  public synchronized void addTime(String phase, long nanos) {
+    mPhaseNanos.merge(phase, nanos, Long::sum);
+  }
+
+  public synchronized void increment(String counter, long delta) {
+    mCounters.merge(counter, delta, Long::sum);
+  }
+
+  /**
+   * Keep the highest value, e.g. for a depth.
+   *
+   * @param counter
+   *          the counter's name
+   * @param value
+   *          the value
+   */
+  public synchronized void max(String counter, long value) {
+    mCounters.merge(counter, value, Math::max);
+  }
+
+  public synchronized long getCounter(String counter) {
+    return mCounters.getOrDefault(counter, 0L);
+  }
+
+  /**
+   * @param phase
+   *          the phase's name
+   * @return the time spent in the phase in milliseconds
+   */
+  public synchronized long getPhaseMillis(String phase) {
+    return TimeUnit.NANOSECONDS.toMillis(mPhaseNanos.getOrDefault(phase, 0L));
+  }
+
+  /**
+   * @return one line with the total time, the time per phase and the counters
+   */
+  public synchronized String getSummary() {
+    StringJoiner summary = new StringJoiner(", ");
+    summary.add("total " + getTotalMillis() + " ms");
+    mPhaseNanos.forEach((phase, nanos) -> summary.add(phase + " " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms"));
+    mCounters.forEach((counter, value) -> summary.add(counter + " " + value));
+    return summary.toString();
+  }
+
+  /**
+   * @param file
+   *          the metrics file
+   * @param taskPath
+   *          the task's path
+   */
+  public synchronized void write(File file, String taskPath) {
+    try (SnapshotEncoder encoder = new JsonSnapshotEncoder(
+        Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+      encoder.beginObject();
+      encoder.name("formatVersion");
+      encoder.value(FORMAT_VERSION);
+      encoder.name("task");
+      encoder.value(taskPath);
+      encoder.name("totalMs");
+      encoder.value(getTotalMillis());
+      encoder.name("phasesMs");
+      encoder.beginObject();
+      for (Map.Entry<String, Long> phase : mPhaseNanos.entrySet()) {
+        encoder.name(phase.getKey());
+        encoder.value(TimeUnit.NANOSECONDS.toMillis(phase.getValue()));
+      }
+      encoder.endObject();
+      encoder.name("counters");
+      encoder.beginObject();
+      for (Map.Entry<String, Long> counter : mCounters.entrySet()) {
+        encoder.name(counter.getKey());
+        encoder.value(counter.getValue());
+      }
+      encoder.endObject();
+      encoder.endObject();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Not possible to write " + file, e);
+    }
+  }
+
+  private long getTotalMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mStart);
+  }
+
+}
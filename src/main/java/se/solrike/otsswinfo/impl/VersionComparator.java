@@ -0,0 +1,114 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares versions in the same way as Gradle orders versions when resolving conflicts.
+ * <p>
+ * The versions are split into parts on ".", "-", "_" and "+" and between digits and letters. Numeric parts are compared
+ * numerically and are higher than non-numeric parts. Non-numeric parts are compared alphabetically except for the
+ * qualifiers dev, rc, snapshot, final, ga, release and sp that are ordered in that way, with dev lower than any other
+ * non-numeric part. An extra numeric part makes the version higher, e.g. 1.0 &lt; 1.0.1, while an extra non-numeric
+ * part makes it lower, e.g. 1.0-rc1 &lt; 1.0.
+ *
+ * @author Lucas Persson
+ */
+public class VersionComparator implements Comparator<String> {
+
+  public static final VersionComparator INSTANCE = new VersionComparator();
+
+  private static final List<String> SPECIAL = List.of("rc", "snapshot", "final", "ga", "release", "sp");
+
+  @Override
+  public int compare(String version1, String version2) {
+    List<String> parts1 = split(version1);
+    List<String> parts2 = split(version2);
+    int length = Math.min(parts1.size(), parts2.size());
+    for (int i = 0; i < length; i++) {
+      int result = compareParts(parts1.get(i), parts2.get(i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    if (parts1.size() == parts2.size()) {
+      return 0;
+    }
+    if (parts1.size() > parts2.size()) {
+      return isNumeric(parts1.get(length)) ? 1 : -1;
+    }
+    return isNumeric(parts2.get(length)) ? -1 : 1;
+  }
+
+  private static int compareParts(String part1, String part2) {
+    boolean numeric1 = isNumeric(part1);
+    boolean numeric2 = isNumeric(part2);
+    if (numeric1 && numeric2) {
+      // compare as strings without leading zeros to not overflow on long numbers
+      String number1 = stripLeadingZeros(part1);
+      String number2 = stripLeadingZeros(part2);
+      return number1.length() != number2.length() ? Integer.compare(number1.length(), number2.length())
+          : number1.compareTo(number2);
+    }
+    if (numeric1 != numeric2) {
+      return numeric1 ? 1 : -1;
+    }
+    String lower1 = part1.toLowerCase(Locale.ROOT);
+    String lower2 = part2.toLowerCase(Locale.ROOT);
+    if (lower1.equals(lower2)) {
+      return 0;
+    }
+    if (lower1.equals("dev") || lower2.equals("dev")) {
+      return lower1.equals("dev") ? -1 : 1;
+    }
+    int special1 = SPECIAL.indexOf(lower1);
+    int special2 = SPECIAL.indexOf(lower2);
+    if (special1 >= 0 && special2 >= 0) {
+      return Integer.compare(special1, special2);
+    }
+    if (special1 >= 0 || special2 >= 0) {
+      return special1 >= 0 ? 1 : -1;
+    }
+    return lower1.compareTo(lower2);
+  }
+
+  private static List<String> split(String version) {
+    List<String> parts = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= version.length(); i++) {
+      boolean end = i == version.length();
+      char c = end ? '.' : version.charAt(i);
+      if (c == '.' || c == '-' || c == '_' || c == '+') {
+        if (i > start) {
+          parts.add(version.substring(start, i));
+        }
+        start = i + 1;
+      }
+      else if (i > start && Character.isDigit(c) != Character.isDigit(version.charAt(i - 1))) {
+        parts.add(version.substring(start, i));
+        start = i;
+      }
+    }
+    return parts;
+  }
+
+  private static boolean isNumeric(String part) {
+    for (int i = 0; i < part.length(); i++) {
+      if (!Character.isDigit(part.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String stripLeadingZeros(String number) {
+    int i = 0;
+    while (i < number.length() - 1 && number.charAt(i) == '0') {
+      i++;
+    }
+    return number.substring(i);
+  }
+
+}
@@ -0,0 +1,86 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modules, group:artifact, that are found in more than one version, e.g. in different subprojects or configurations.
+ *
+ * @author Lucas Persson
+ */
+public class VersionConflicts {
+
+  /**
+   * A module found in several versions.
+   */
+  @SuppressWarnings("java:S1104")
+  public static class Conflict {
+    public String group;
+    public String name;
+    /**
+     * The dependencies, highest version first.
+     */
+    public List<ArtifactMetadata> dependencies = new ArrayList<>();
+
+    /**
+     * @return the dependency with the highest version
+     */
+    public ArtifactMetadata getHighest() {
+      return dependencies.get(0);
+    }
+
+    /**
+     * Estimate how much the duplicates add if all versions are packaged, i.e. the size of all but the highest version.
+     *
+     * @param jarSizes
+     *          size in bytes of the jar files. The key in the map is the artifact name in GAV format.
+     * @return the total size in bytes. Versions without a known size are not counted.
+     */
+    public long getDuplicateSize(Map<String, Long> jarSizes) {
+      long size = 0;
+      for (ArtifactMetadata dependency : dependencies.subList(1, dependencies.size())) {
+        size += jarSizes.getOrDefault(dependency.artifactName, 0L);
+      }
+      return size;
+    }
+  }
+
+  private VersionConflicts() {
+  }
+
+  /**
+   * Group the dependencies by module in one pass over a hash index. Only modules with more than one version are
+   * sorted.
+   *
+   * @param dependencies
+   *          the dependencies, unique by GAV (group:artifact:version)
+   * @return the modules with more than one version ordered by name and group
+   */
+  public static List<Conflict> find(Collection<ArtifactMetadata> dependencies) {
+    // ArtifactMetadata is equal by module name only so the module is the key
+    Map<String, Conflict> byModule = new HashMap<>();
+    List<Conflict> conflicts = new ArrayList<>();
+    for (ArtifactMetadata dependency : dependencies) {
+      Conflict module = byModule.computeIfAbsent(dependency.group + ":" + dependency.name, key -> {
+        Conflict conflict = new Conflict();
+        conflict.group = dependency.group;
+        conflict.name = dependency.name;
+        return conflict;
+      });
+      module.dependencies.add(dependency);
+      if (module.dependencies.size() == 2) {
+        conflicts.add(module);
+      }
+    }
+    Comparator<ArtifactMetadata> highestFirst = Comparator.comparing(dependency -> dependency.version,
+        VersionComparator.INSTANCE.reversed());
+    conflicts.forEach(conflict -> conflict.dependencies.sort(highestFirst));
+    conflicts.sort(Comparator.comparing((Conflict conflict) -> conflict.name).thenComparing(conflict -> conflict.group));
+    return conflicts;
+  }
+
+}
@@ -0,0 +1,135 @@
+package se.solrike.otsswinfo.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The difference between the dependencies of two releases.
+ *
+ * @author Lucas Persson
+ */
+public class VersionDiff {
+
+  public enum Change {
+    ADDED("Added"),
+    REMOVED("Removed"),
+    UPGRADED("Upgraded"),
+    DOWNGRADED("Downgraded"),
+    LICENSE_CHANGED("License changed");
+
+    private final String mText;
+
+    Change(String text) {
+      mText = text;
+    }
+
+    @Override
+    public String toString() {
+      return mText;
+    }
+  }
+
+  /**
+   * A changed dependency. The previous version and license are null for added dependencies and the version and license
+   * are null for removed dependencies.
+   */
+  @SuppressWarnings("java:S1104")
+  public static class Entry {
+    public String group;
+    public String name;
+    public Change change;
+    public String previousVersion;
+    public String version;
+    public String previousLicense;
+    public String license;
+
+    /**
+     * @return true if the license is different in the two releases
+     */
+    public boolean isLicenseChanged() {
+      return previousVersion != null && version != null && !Objects.equals(previousLicense, license);
+    }
+  }
+
+  private VersionDiff() {
+  }
+
+  /**
+   * Compare two releases in one pass over the modules.
+   * <p>
+   * For each module the versions only in the previous release are paired with the versions only in the current release,
+   * highest with highest, and reported as upgraded or downgraded. Versions left without a pair are reported as removed
+   * or added. Versions in both releases are only reported if the license has changed. An upgraded or downgraded
+   * dependency might also have a changed license, see {@link Entry#isLicenseChanged()}.
+   *
+   * @param previous
+   *          the dependencies in the previous release
+   * @param current
+   *          the dependencies in the current release
+   * @return the changes ordered by name, group and change
+   */
+  public static List<Entry> diff(VersionReportIndex previous, VersionReportIndex current) {
+    Set<String> modules = new HashSet<>(previous.getModules());
+    modules.addAll(current.getModules());
+    List<Entry> entries = new ArrayList<>();
+    for (String module : modules) {
+      diffModule(module, previous.getVersions(module), current.getVersions(module), entries);
+    }
+    entries.sort(Comparator.comparing((Entry e) -> e.name.toLowerCase())
+        .thenComparing(e -> e.group)
+        .thenComparing(e -> e.change)
+        .thenComparing(e -> e.version != null ? e.version : e.previousVersion, VersionReportIndex.VERSION_ORDER));
+    return entries;
+  }
+
+  private static void diffModule(String module, SortedMap<String, String> previous, SortedMap<String, String> current,
+      List<Entry> entries) {
+    String group = module.substring(0, module.indexOf(':'));
+    String name = module.substring(module.indexOf(':') + 1);
+    TreeMap<String, String> removed = new TreeMap<>(previous);
+    TreeMap<String, String> added = new TreeMap<>(current);
+    for (String version : current.keySet()) {
+      if (previous.containsKey(version)) {
+        removed.remove(version);
+        added.remove(version);
+        String previousLicense = previous.get(version);
+        String license = current.get(version);
+        if (!Objects.equals(previousLicense, license)) {
+          entries.add(entry(group, name, Change.LICENSE_CHANGED, version, previousLicense, version, license));
+        }
+      }
+    }
+    while (!removed.isEmpty() && !added.isEmpty()) {
+      String previousVersion = removed.lastKey();
+      String version = added.lastKey();
+      Change change = VersionReportIndex.VERSION_ORDER.compare(version, previousVersion) > 0 ? Change.UPGRADED
+          : Change.DOWNGRADED;
+      entries.add(entry(group, name, change, previousVersion, removed.remove(previousVersion), version,
+          added.remove(version)));
+    }
+    removed.forEach((version, license) -> entries
+        .add(entry(group, name, Change.REMOVED, version, license, null, null)));
+    added.forEach((version, license) -> entries.add(entry(group, name, Change.ADDED, null, null, version, license)));
+  }
+
+  @SuppressWarnings("java:S107")
+  private static Entry entry(String group, String name, Change change, String previousVersion, String previousLicense,
+      String version, String license) {
+    Entry entry = new Entry();
+    entry.group = group;
+    entry.name = name;
+    entry.change = change;
+    entry.previousVersion = previousVersion;
+    entry.previousLicense = previousLicense;
+    entry.version = version;
+    entry.license = license;
+    return entry;
+  }
+
+}
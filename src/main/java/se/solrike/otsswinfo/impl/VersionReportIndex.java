@@ -0,0 +1,151 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The dependencies in a version report indexed by module (group:name) and version.
+ * <p>
+ * The report is streamed so only the name, version, group and license of each row are kept in memory. The columns are
+ * located by the header row and anything before it, e.g. extra version info, is ignored. A report without a header is
+ * assumed to have the columns in the same order as the current report.
+ *
+ * @author Lucas Persson
+ */
+public class VersionReportIndex {
+
+  private static final String NAME = "Name";
+  private static final String VERSION = "Version";
+  private static final String GROUP = "Package Name";
+  private static final String LICENSE = "License";
+
+  /**
+   * Orders versions by {@link VersionComparator} and versions it considers equal, e.g. 1.0 and 1.00, by the exact
+   * string so they are still different keys.
+   */
+  public static final Comparator<String> VERSION_ORDER = VersionComparator.INSTANCE
+      .thenComparing(Comparator.naturalOrder());
+
+  /**
+   * The key is group:name and the value is the licenses with the exact version as key, ordered by
+   * {@link #VERSION_ORDER}.
+   */
+  private final Map<String, TreeMap<String, String>> mModules = new HashMap<>();
+  private int mSize;
+
+  /**
+   * Read a report with the platform's default charset, which is what the report is written with.
+   *
+   * @param report
+   *          the CSV version report
+   * @return the index
+   */
+  public static VersionReportIndex read(File report) {
+    try (Reader reader = Files.newBufferedReader(report.toPath(), Charset.defaultCharset())) {
+      return read(reader);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static VersionReportIndex read(Reader report) {
+    VersionReportIndex index = new VersionReportIndex();
+    try (CsvReportReader reader = new CsvReportReader(report)) {
+      int nameColumn = 0;
+      int versionColumn = 1;
+      int groupColumn = 2;
+      int licenseColumn = 5;
+      for (List<String> row = reader.readRow(); row != null; row = reader.readRow()) {
+        if (row.size() > 1 && NAME.equals(row.get(0).trim()) && VERSION.equals(row.get(1).trim())) {
+          // what came before was not dependencies
+          index.clear();
+          nameColumn = indexOf(row, NAME);
+          versionColumn = indexOf(row, VERSION);
+          groupColumn = indexOf(row, GROUP);
+          licenseColumn = indexOf(row, LICENSE);
+        }
+        else if (nameColumn >= 0 && groupColumn >= 0
+            && row.size() > Math.max(nameColumn, Math.max(versionColumn, groupColumn))) {
+          index.add(row.get(groupColumn), row.get(nameColumn), row.get(versionColumn),
+              licenseColumn >= 0 && licenseColumn < row.size() ? row.get(licenseColumn) : "");
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return index;
+  }
+
+  /**
+   * @return true if the dependency is in the report
+   */
+  public boolean contains(String group, String name, String version) {
+    TreeMap<String, String> versions = mModules.get(group + ":" + name);
+    return versions != null && versions.containsKey(version);
+  }
+
+  /**
+   * @param module
+   *          on format group:name
+   * @return the licenses with the exact version as key, ordered from lowest to highest version. Empty if the module
+   *         isn't in the report.
+   */
+  public SortedMap<String, String> getVersions(String module) {
+    SortedMap<String, String> versions = mModules.get(module);
+    return versions != null ? Collections.unmodifiableSortedMap(versions) : Collections.emptySortedMap();
+  }
+
+  /**
+   * @return the modules on format group:name
+   */
+  public Set<String> getModules() {
+    return Collections.unmodifiableSet(mModules.keySet());
+  }
+
+  /**
+   * @return number of dependencies in the report
+   */
+  public int size() {
+    return mSize;
+  }
+
+  void add(String group, String name, String version, String license) {
+    group = group.trim();
+    name = name.trim();
+    version = version.trim();
+    if (!group.isEmpty() && !name.isEmpty() && !version.isEmpty()
+        && mModules.computeIfAbsent(group + ":" + name, k -> new TreeMap<>(VERSION_ORDER))
+            .put(version, license) == null) {
+      mSize++;
+    }
+  }
+
+  private void clear() {
+    mModules.clear();
+    mSize = 0;
+  }
+
+  private static int indexOf(List<String> header, String column) {
+    for (int i = 0; i < header.size(); i++) {
+      if (column.equals(header.get(i).trim())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+}
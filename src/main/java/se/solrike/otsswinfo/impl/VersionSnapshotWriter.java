@@ -0,0 +1,206 @@
+package se.solrike.otsswinfo.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the dependencies as a versioned, machine readable snapshot in JSON or CBOR. All fields in
+ * {@link ArtifactMetadata} are included together with the dependencies' dependents and the shortest path from a first
+ * level dependency.
+ *
+ * <pre>
+ * {"formatVersion":1,"extraVersionInfo":[...],"dependencies":[{"artifactName":"g:n:v","group":"g","name":"n",
+ * "version":"v","license":...,"licenseUrl":...,"url":...,"description":...,"newToRelease":...,"latestVersion":...,
+ * "hasAllowedLicense":...,"isTooOldVersion":...,"dependents":["g:n:v",...],"path":["g:n:v",...]},...]}
+ * </pre>
+ *
+ * The format version is increased when the format changes in a way that isn't backwards compatible.
+ *
+ * @author Lucas Persson
+ */
+public class VersionSnapshotWriter {
+
+  public static final int FORMAT_VERSION = 1;
+  public static final String FORMAT_JSON = "json";
+  public static final String FORMAT_CBOR = "cbor";
+  public static final List<String> FORMATS = List.of(FORMAT_JSON, FORMAT_CBOR);
+
+  private VersionSnapshotWriter() {
+  }
+
+  /**
+   * @param reportFileName
+   *          the CSV report's file name
+   * @param format
+   *          json or cbor
+   * @return the snapshot's file name, the report's name with the format as extension
+   */
+  public static String fileName(String reportFileName, String format) {
+    int dot = reportFileName.lastIndexOf('.');
+    return (dot > 0 ? reportFileName.substring(0, dot) : reportFileName) + "." + format;
+  }
+
+  /**
+   * @param file
+   *          the snapshot file
+   * @param format
+   *          json or cbor
+   * @param extraVersionInfo
+   *          additional text, same as in the CSV report
+   * @param dependencies
+   *          the dependencies in the order they shall be written
+   */
+  public static void write(File file, String format, List<String> extraVersionInfo,
+      Collection<ArtifactMetadata> dependencies) {
+    try (SnapshotEncoder encoder = createEncoder(file, format)) {
+      write(encoder, extraVersionInfo, dependencies);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Not possible to write " + file, e);
+    }
+  }
+
+  static SnapshotEncoder createEncoder(File file, String format) throws IOException {
+    if (FORMAT_JSON.equals(format)) {
+      return new JsonSnapshotEncoder(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8));
+    }
+    else if (FORMAT_CBOR.equals(format)) {
+      return new CborSnapshotEncoder(new BufferedOutputStream(Files.newOutputStream(file.toPath())));
+    }
+    throw new IllegalArgumentException("Unknown snapshot format '" + format + "', use one of " + FORMATS);
+  }
+
+  static void write(SnapshotEncoder encoder, List<String> extraVersionInfo, Collection<ArtifactMetadata> dependencies)
+      throws IOException {
+    Map<DependencyGraph, int[]> pathParents = shortestPathParents(dependencies);
+    encoder.beginObject();
+    encoder.name("formatVersion");
+    encoder.value(FORMAT_VERSION);
+    encoder.name("extraVersionInfo");
+    encoder.beginArray();
+    for (String extraInfo : extraVersionInfo) {
+      encoder.value(extraInfo);
+    }
+    encoder.endArray();
+    encoder.name("dependencies");
+    encoder.beginArray();
+    for (ArtifactMetadata metadata : dependencies) {
+      writeDependency(encoder, metadata, pathParents);
+    }
+    encoder.endArray();
+    encoder.endObject();
+  }
+
+  private static void writeDependency(SnapshotEncoder encoder, ArtifactMetadata metadata,
+      Map<DependencyGraph, int[]> pathParents) throws IOException {
+    encoder.beginObject();
+    encoder.name("artifactName");
+    encoder.value(metadata.artifactName);
+    encoder.name("group");
+    encoder.value(metadata.group);
+    encoder.name("name");
+    encoder.value(metadata.name);
+    encoder.name("version");
+    encoder.value(metadata.version);
+    encoder.name("license");
+    encoder.value(metadata.license);
+    encoder.name("licenseUrl");
+    encoder.value(metadata.licenseUrl);
+    encoder.name("url");
+    encoder.value(metadata.url);
+    encoder.name("description");
+    encoder.value(metadata.description);
+    encoder.name("newToRelease");
+    encoder.value(metadata.newToRelease);
+    encoder.name("latestVersion");
+    encoder.value(metadata.latestVersion);
+    encoder.name("hasAllowedLicense");
+    encoder.value(metadata.hasAllowedLicense);
+    encoder.name("isTooOldVersion");
+    encoder.value(metadata.isTooOldVersion);
+    encoder.name("dependents");
+    encoder.beginArray();
+    DependencyGraph graph = metadata.graph;
+    if (graph != null) {
+      for (int parent : graph.getParents(metadata.node)) {
+        if (!graph.isRoot(parent)) {
+          encoder.value(graph.getName(parent));
+        }
+      }
+    }
+    encoder.endArray();
+    encoder.name("path");
+    encoder.beginArray();
+    if (graph != null) {
+      for (int node : pathOf(graph, metadata.node, pathParents.get(graph))) {
+        encoder.value(graph.getName(node));
+      }
+    }
+    encoder.endArray();
+    encoder.endObject();
+  }
+
+  /**
+   * The shortest path from a first level dependency to the dependency, both included.
+   */
+  static List<Integer> pathOf(DependencyGraph graph, int dependency, int[] pathParents) {
+    List<Integer> path = new ArrayList<>();
+    for (int node = dependency; node >= 0 && !graph.isRoot(node); node = pathParents[node]) {
+      path.add(node);
+    }
+    Collections.reverse(path);
+    return path;
+  }
+
+  /**
+   * Find the shortest paths from the root with one breadth first walk over each of the dependencies' graphs.
+   *
+   * @param dependencies
+   *          the dependencies whose graphs to walk
+   * @return for each graph each node's parent in the shortest path from the root, -1 if the node isn't reached
+   */
+  static Map<DependencyGraph, int[]> shortestPathParents(Collection<ArtifactMetadata> dependencies) {
+    Map<DependencyGraph, int[]> pathParents = new IdentityHashMap<>();
+    for (ArtifactMetadata metadata : dependencies) {
+      if (metadata.graph != null) {
+        pathParents.computeIfAbsent(metadata.graph, VersionSnapshotWriter::shortestPathParents);
+      }
+    }
+    return pathParents;
+  }
+
+  private static int[] shortestPathParents(DependencyGraph graph) {
+    int[] pathParents = new int[graph.size()];
+    Arrays.fill(pathParents, -1);
+    BitSet reached = new BitSet(graph.size());
+    reached.set(DependencyGraph.ROOT);
+    Deque<Integer> queue = new ArrayDeque<>();
+    queue.add(DependencyGraph.ROOT);
+    while (!queue.isEmpty()) {
+      int node = queue.poll();
+      for (int child : graph.getChildren(node)) {
+        if (!reached.get(child)) {
+          reached.set(child);
+          pathParents[child] = node;
+          queue.add(child);
+        }
+      }
+    }
+    return pathParents;
+  }
+
+}
@@ -124,6 +124,103 @@ otsSwInfo {
   }
 
 
+  def "can run versionDiffReport task"() {
+    given: "build file as in setup and a previous report with an older slf4j and a removed dependency"
+    addDepAndConfig()
+    new File(mProjectDir, "previousReport.csv") << '''sep=,
+
+Name,Version,Package Name,Manufacturer URL,Description,License,
+slf4j-api,1.7.25,org.slf4j,"http://www.slf4j.org","The slf4j API","MIT License",
+commons-codec,1.15,commons-codec,"","","Apache License, Version 2.0",
+'''
+    buildFile << '''
+otsSwInfo {
+  previousReportFile = layout.projectDirectory.file('previousReport.csv')
+}
+'''
+
+    when: "exeute the task"
+    def result = runGradle(true, List.of("versionDiffReport"));
+
+    then: "the build shall be successful and this release's report generated first"
+    result.task(':versionReport').outcome == SUCCESS
+    result.task(':versionDiffReport').outcome == SUCCESS
+    and: "the spring dependencies are added, slf4j upgraded and commons-codec removed"
+    result.output.contains("Number of OTS SW added: 2, removed: 1, upgraded: 1, downgraded: 0, license changed: 0")
+  }
+
+  def "can run sbomReport task"() {
+    given: "build file as in setup"
+    addDepAndConfig()
+
+    when: "exeute the task"
+    def result = runGradle(true, List.of("sbomReport"));
+
+    then: "the build shall be successful"
+    result.task(':sbomReport').outcome == SUCCESS
+    and: "both SBOMs are generated with the 3 dependencies"
+    result.output.contains("Number of OTS SW: 3")
+    new File(mProjectDir, "build/reports/otsswinfo/sbom.cdx.json").exists()
+    new File(mProjectDir, "build/reports/otsswinfo/sbom.spdx.json").exists()
+  }
+
+  def "can run versionConflictReport task"() {
+    given: "build file as in setup with a newer slf4j for the tests"
+    addDepAndConfig()
+    buildFile << '''
+dependencies {
+  testImplementation 'org.slf4j:slf4j-api:1.7.36'
+}
+otsSwInfo {
+  includeConfigurations = ['runtimeClasspath', 'testRuntimeClasspath']
+}
+'''
+
+    when: "exeute the task"
+    def result = runGradle(true, List.of("versionConflictReport"));
+
+    then: "the build shall be successful"
+    result.task(':versionConflictReport').outcome == SUCCESS
+    and: "slf4j is in two versions"
+    result.output.contains("Version conflict: org.slf4j:slf4j-api in versions 1.7.36, 1.7.30")
+    result.output.contains("Number of OTS SW with version conflicts: 1")
+    new File(mProjectDir, "build/reports/otsswinfo/JavaVersionConflictReport.csv").exists()
+  }
+
+  def "versionReport is taken from the build cache"() {
+    given: "build file as in setup and a build cache in the project"
+    addDepAndConfig()
+    settingsFile << """
+buildCache {
+  local {
+    directory = new File(rootDir, 'build-cache')
+  }
+}
+"""
+
+    when: "exeute the task twice and remove the report in between"
+    runGradle(List.of("versionReport", "--build-cache"))
+    new File(mProjectDir, "build/reports/otsswinfo/JavaVersionAndLicenseReport.csv").delete()
+    def result = runGradle(List.of("versionReport", "--build-cache"))
+
+    then: "the report is restored from the build cache"
+    result.task(':versionReport').outcome == FROM_CACHE
+    new File(mProjectDir, "build/reports/otsswinfo/JavaVersionAndLicenseReport.csv").exists()
+  }
+
+  def "can run the tasks with the configuration cache enabled"() {
+    given: "build file as in setup"
+    addDepAndConfig()
+
+    when: "exeute the tasks"
+    def result = runGradle(true, List.of("versionReport", "versionUpToDateReport", "--configuration-cache"));
+
+    then: "the build shall be successful"
+    result.task(':versionReport').outcome == SUCCESS
+    result.task(':versionUpToDateReport').outcome == SUCCESS
+  }
+
+
   BuildResult runGradle(List<String> args) {
     return runGradle(true, args);
   }
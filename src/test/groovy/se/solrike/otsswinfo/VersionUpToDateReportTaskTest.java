@@ -1,12 +1,27 @@
 package se.solrike.otsswinfo;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static se.solrike.otsswinfo.VersionUpToDateReportTask.isTooOld;
 
+import java.io.File;
+
+import org.gradle.api.Project;
+import org.gradle.api.credentials.HttpHeaderCredentials;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.authentication.http.BasicAuthentication;
+import org.gradle.authentication.http.HttpHeaderAuthentication;
+import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import se.solrike.otsswinfo.impl.MavenMetadataVersionLister;
 
 class VersionUpToDateReportTaskTest {
 
+  @TempDir
+  File mDir;
+
   @Test
   void testIsTooOld() {
     assertThat(isTooOld(0, 3, "1.2.3", "2.0.2")).isTrue();
@@ -18,4 +33,64 @@ class VersionUpToDateReportTaskTest {
     assertThat(isTooOld(1, 2, "20220319", "20220320")).isFalse();
   }
 
+  @Test
+  void testScannedRepositoriesIncludeTheSubprojects() {
+    Project root = createRootProject();
+    Project a = ProjectBuilder.builder().withName("a").withParent(root).build();
+    a.getPluginManager().apply(JavaBasePlugin.class);
+    a.getRepositories().maven(repository -> repository.setUrl("https://maven.example.com/releases/"));
+    a.getRepositories().mavenCentral();
+    Project b = ProjectBuilder.builder().withName("b").withParent(root).build();
+    b.getRepositories().maven(repository -> repository.setUrl("https://maven.example.com/not-scanned/"));
+
+    assertThat(taskOf(root).listScannedRepositories()).containsExactly("https://repo.maven.apache.org/maven2/",
+        "https://maven.example.com/releases/");
+  }
+
+  @Test
+  void testHeaderCredentialsAreNotListed() {
+    Project root = createRootProject();
+    root.getRepositories().maven(repository -> {
+      repository.setUrl("https://maven.example.com/releases/");
+      repository.credentials(HttpHeaderCredentials.class, credentials -> {
+        credentials.setName("Private-Token");
+        credentials.setValue("secret");
+      });
+      repository.getAuthentication().create("header", HttpHeaderAuthentication.class);
+    });
+
+    assertThat(taskOf(root).createMavenMetadataVersionLister()).as("the versions are resolved instead").isNull();
+  }
+
+  @Test
+  void testPasswordCredentials() {
+    Project root = createRootProject();
+    root.getRepositories().maven(repository -> {
+      repository.setUrl("https://maven.example.com/releases/");
+      repository.credentials(credentials -> {
+        credentials.setUsername("user");
+        credentials.setPassword("secret");
+      });
+      repository.getAuthentication().create("basic", BasicAuthentication.class);
+    });
+
+    MavenMetadataVersionLister lister = taskOf(root).createMavenMetadataVersionLister();
+
+    assertThat(lister.getRepositories()).extracting(r -> r.url.toString(), r -> r.username, r -> r.password)
+        .containsExactly(tuple("https://repo.maven.apache.org/maven2/", null, null),
+            tuple("https://maven.example.com/releases/", "user", "secret"));
+  }
+
+  private Project createRootProject() {
+    Project root = ProjectBuilder.builder().withProjectDir(new File(mDir, "root")).build();
+    root.getPluginManager().apply(JavaBasePlugin.class);
+    root.getPluginManager().apply(OtsSwInfoPlugin.class);
+    root.getRepositories().mavenCentral();
+    return root;
+  }
+
+  private static VersionUpToDateReportTask taskOf(Project project) {
+    return (VersionUpToDateReportTask) project.getTasks().getByName("versionUpToDateReport");
+  }
+
 }
@@ -0,0 +1,92 @@
+package se.solrike.otsswinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.solrike.otsswinfo.impl.ArtifactMetadata;
+
+/**
+ * @author Lucas Persson
+ */
+class OtsSwInfoBaseTaskTest {
+
+  private Project mProject;
+  private OtsSwInfoBaseTask mTask;
+
+  @BeforeEach
+  public void setup() {
+    mProject = ProjectBuilder.builder().build();
+    mProject.getPluginManager().apply(JavaBasePlugin.class);
+    mProject.getPluginManager().apply(OtsSwInfoPlugin.class);
+    mTask = (OtsSwInfoBaseTask) mProject.getTasks().getByName("versionReport");
+    mTask.initExcludeArtifactGroupsAll();
+  }
+
+  @Test
+  void testCollectDependenciesWalksSharedNodeOnce() {
+    // diamond: a -> b -> d and a -> c -> d
+    ResolvedDependency d = mockDependency("d", Set.of());
+    ResolvedDependency b = mockDependency("b", Set.of(d));
+    ResolvedDependency c = mockDependency("c", Set.of(d));
+    ResolvedDependency a = mockDependency("a", Set.of(b, c));
+
+    Map<String, ArtifactMetadata> collected = new LinkedHashMap<>();
+    mTask.collectDependencies(mProject, Set.of(a), collected);
+
+    assertThat(collected).containsOnlyKeys("org.example:a:1.0", "org.example:b:1.0", "org.example:c:1.0",
+        "org.example:d:1.0");
+    assertThat(mTask.mUniqueNodes).isEqualTo(4);
+    assertThat(mTask.mNodesVisited).as("d is reached twice").isEqualTo(5);
+  }
+
+  @Test
+  void testResolvedGraphHasTheEdgesPerConfiguration() {
+    // the same projects and modules but b is brought in by another project
+    OtsSwInfoBaseTask aDependsOnB = taskForProjects("a");
+    OtsSwInfoBaseTask cDependsOnB = taskForProjects("c");
+
+    assertThat(aDependsOnB.getResolvedGraph().get()).containsExactly(
+        ":a:runtimeClasspath project :a -> project :b", ":a:testRuntimeClasspath project :a -> project :b");
+    assertThat(cDependsOnB.getResolvedGraph().get()).containsExactly(
+        ":c:runtimeClasspath project :c -> project :b", ":c:testRuntimeClasspath project :c -> project :b");
+    assertThat(aDependsOnB.getResolvedModules().get()).isEqualTo(cDependsOnB.getResolvedModules().get());
+  }
+
+  private static OtsSwInfoBaseTask taskForProjects(String dependent) {
+    Project root = ProjectBuilder.builder().withName("root").build();
+    for (String name : List.of("a", "b", "c")) {
+      Project subproject = ProjectBuilder.builder().withName(name).withParent(root).build();
+      subproject.getPluginManager().apply(JavaPlugin.class);
+    }
+    Project project = root.project(":" + dependent);
+    project.getDependencies().add("implementation", project.getDependencies().project(Map.of("path", ":b")));
+    root.getPluginManager().apply(JavaBasePlugin.class);
+    root.getPluginManager().apply(OtsSwInfoPlugin.class);
+    OtsSwInfoBaseTask task = (OtsSwInfoBaseTask) root.getTasks().getByName("versionReport");
+    task.getIncludeConfigurations().set(List.of("runtimeClasspath", "testRuntimeClasspath"));
+    return task;
+  }
+
+  private static ResolvedDependency mockDependency(String name, Set<ResolvedDependency> children) {
+    ResolvedDependency dep = mock(ResolvedDependency.class);
+    when(dep.getModuleGroup()).thenReturn("org.example");
+    when(dep.getName()).thenReturn("org.example:" + name + ":1.0");
+    when(dep.getChildren()).thenReturn(children);
+    return dep;
+  }
+
+}
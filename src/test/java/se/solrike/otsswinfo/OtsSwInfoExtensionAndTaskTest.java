@@ -2,12 +2,17 @@ package se.solrike.otsswinfo;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+
 import org.gradle.api.Project;
+import org.gradle.api.Task;
 import org.gradle.api.plugins.JavaBasePlugin;
 import org.gradle.testfixtures.ProjectBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import se.solrike.otsswinfo.impl.VersionReportState;
+
 /**
  * @author Lucas Persson
  */
@@ -39,4 +44,33 @@ class OtsSwInfoExtensionAndTaskTest {
 
   }
 
+  @Test
+  void stateFileIsOutputWhenIncremental() {
+    VersionReportTask task = (VersionReportTask) mProject.getTasks().getByName("versionReport");
+    OtsSwInfoExtension extension = mProject.getExtensions().getByType(OtsSwInfoExtension.class);
+    assertThat(task.getStateFile().isPresent()).isFalse();
+
+    extension.getIncrementalVersionReport().set(true);
+
+    assertThat(task.getStateFile().get().getAsFile())
+        .isEqualTo(task.getReportsDir().file(VersionReportState.FILE_NAME).get().getAsFile());
+  }
+
+  @Test
+  void versionDiffReportDependsOnVersionReport() {
+    VersionDiffReportTask task = (VersionDiffReportTask) mProject.getTasks().getByName("versionDiffReport");
+    Task versionReport = mProject.getTasks().getByName("versionReport");
+
+    assertThat(new ArrayList<Task>(task.getTaskDependencies().getDependencies(task))).containsExactly(versionReport);
+  }
+
+  @Test
+  void versionDiffReportWithOtherCurrentReport() {
+    VersionDiffReportTask task = (VersionDiffReportTask) mProject.getTasks().getByName("versionDiffReport");
+
+    task.getCurrentReportFile().set(mProject.getLayout().getProjectDirectory().file("current.csv"));
+
+    assertThat(task.getTaskDependencies().getDependencies(task)).isEmpty();
+  }
+
 }
\ No newline at end of file
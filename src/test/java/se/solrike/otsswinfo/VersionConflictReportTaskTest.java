@@ -0,0 +1,65 @@
+package se.solrike.otsswinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaBasePlugin;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import se.solrike.otsswinfo.impl.ArtifactMetadata;
+import se.solrike.otsswinfo.impl.VersionConflicts.Conflict;
+
+/**
+ * @author Lucas Persson
+ */
+class VersionConflictReportTaskTest {
+
+  @TempDir
+  File mDir;
+
+  @Test
+  void testJarSizesAreReadWithEverySubprojectsRepositories() throws IOException {
+    // lib 1.0 is only in a's repository and lib 2.0 only in b's
+    File repoA = new File(mDir, "repo-a");
+    File repoB = new File(mDir, "repo-b");
+    publish(repoA, "1.0", 10);
+    publish(repoB, "2.0", 20);
+    Project root = ProjectBuilder.builder().withProjectDir(new File(mDir, "root")).build();
+    root.getPluginManager().apply(JavaBasePlugin.class);
+    root.getPluginManager().apply(OtsSwInfoPlugin.class);
+    for (Map.Entry<String, File> subproject : Map.of("a", repoA, "b", repoB).entrySet()) {
+      Project project = ProjectBuilder.builder().withName(subproject.getKey()).withParent(root).build();
+      project.getPluginManager().apply(JavaBasePlugin.class);
+      project.getRepositories().maven(repository -> repository.setUrl(subproject.getValue()));
+    }
+    VersionConflictReportTask task = (VersionConflictReportTask) root.getTasks().getByName("versionConflictReport");
+
+    Conflict conflict = new Conflict();
+    conflict.group = "org.example";
+    conflict.name = "lib";
+    conflict.dependencies = List.of(new ArtifactMetadata("org.example", "lib", "2.0"),
+        new ArtifactMetadata("org.example", "lib", "1.0"), new ArtifactMetadata("org.example", "lib", "3.0"));
+
+    assertThat(task.readJarSizes(List.of(conflict))).containsOnly(Map.entry("org.example:lib:1.0", 10L),
+        Map.entry("org.example:lib:2.0", 20L));
+  }
+
+  private static void publish(File repository, String version, int jarSize) throws IOException {
+    File dir = new File(repository, "org/example/lib/" + version);
+    dir.mkdirs();
+    Files.write(new File(dir, "lib-" + version + ".pom").toPath(),
+        ("<project><modelVersion>4.0.0</modelVersion><groupId>org.example</groupId><artifactId>lib</artifactId>"
+            + "<version>" + version + "</version></project>").getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(dir, "lib-" + version + ".jar").toPath(), new byte[jarSize]);
+  }
+
+}
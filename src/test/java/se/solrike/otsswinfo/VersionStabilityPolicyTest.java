@@ -0,0 +1,57 @@
+package se.solrike.otsswinfo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import groovy.lang.Closure;
+
+/**
+ * @author Lucas Persson
+ */
+class VersionStabilityPolicyTest {
+
+  @Test
+  final void testDefaultPolicySameAsIsStableDefault() {
+    VersionStabilityPolicy policy = VersionStabilityPolicy.defaultPolicy();
+    for (String version : List.of("1.0.0", "v1.0.0", "v1.0.0-alpha", "1.0.1-final", "1.0.1.Final", "v2.0-GA",
+        "1.0.alpha", "1.0.1c", "30.3-jre", "30.3+jre", "1.0.release", "5.3.19", "2.0.0-M1")) {
+      assertThat(policy.isStable(version)).as(version).isEqualTo(IsStableDefault.isStable(version));
+    }
+    assertThat(policy.isAccepted("release", "1.0.0")).isTrue();
+    assertThat(policy.isAccepted("integration", "1.0.0")).isFalse();
+  }
+
+  @Test
+  final void testRules() {
+    VersionStabilityPolicy policy = VersionStabilityPolicy.defaultPolicy()
+        .withKeywords("jre")
+        .withPatterns("^\\d+\\.\\d+\\.\\d+\\.v\\d+$")
+        .withStatuses("release", "milestone");
+
+    assertThat(policy.isStable("31.1-jre")).isTrue();
+    assertThat(policy.isStable("3.1.0.v20220101")).isTrue();
+    assertThat(policy.isStable("31.1-android")).isFalse();
+    assertThat(policy.isAccepted("milestone", "1.0.0")).isTrue();
+    assertThat(VersionStabilityPolicy.defaultPolicy().isStable("31.1-jre")).as("the default is unchanged").isFalse();
+  }
+
+  @Test
+  final void testFallback() {
+    Closure<Boolean> isAndroid = new Closure<Boolean>(null) {
+      @SuppressWarnings("unused")
+      public Boolean doCall(String version) {
+        return version.endsWith("-android");
+      }
+    };
+
+    assertThat(VersionStabilityPolicy.defaultPolicy().withFallback(isAndroid).isStable("31.1-android")).isTrue();
+    assertThat(VersionStabilityPolicy.ofClosure(isAndroid).isStable("1.0.0")).as("only the closure is used")
+        .isFalse();
+    assertThat(VersionStabilityPolicy.ofClosure(isAndroid).getIdentity())
+        .isNotEqualTo(VersionStabilityPolicy.defaultPolicy().getIdentity());
+  }
+
+}
@@ -0,0 +1,28 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class ArtifactMetadataUtilTest {
+
+  @Test
+  final void testPartitionByModule() {
+    List<Collection<String>> batches = ArtifactMetadataUtil.partitionByModule(
+        List.of("org.apache:apache:21", "io.netty:netty-parent:4.1.77.Final", "org.apache:apache:23",
+            "org.apache:apache:21.1", "org.springframework:spring-core:5.3.5"));
+
+    assertThat(batches).hasSize(3);
+    assertThat(batches.get(0)).containsExactlyInAnyOrder("org.apache:apache:21", "io.netty:netty-parent:4.1.77.Final",
+        "org.springframework:spring-core:5.3.5");
+    assertThat(batches.get(1)).containsExactly("org.apache:apache:23");
+    assertThat(batches.get(2)).containsExactly("org.apache:apache:21.1");
+  }
+
+}
@@ -0,0 +1,41 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Lucas Persson
+ */
+class CacheFileUtilTest {
+
+  @TempDir
+  File mDir;
+
+  @Test
+  final void testWriteAtomically() throws IOException {
+    File file = new File(mDir, "caches/otsswinfo/cache.json");
+
+    CacheFileUtil.writeAtomically(file, "{\"version\":1}");
+
+    assertThat(file).as("the directories are created").hasContent("{\"version\":1}");
+  }
+
+  @Test
+  final void testReplacesExistingFile() throws IOException {
+    File file = new File(mDir, "cache.json");
+    Files.write(file.toPath(), "old content that is longer than the new".getBytes(StandardCharsets.UTF_8));
+
+    CacheFileUtil.writeAtomically(file, "new åäö");
+
+    assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).isEqualTo("new åäö");
+    assertThat(mDir.list()).as("no temp files are left").containsExactly("cache.json");
+  }
+
+}
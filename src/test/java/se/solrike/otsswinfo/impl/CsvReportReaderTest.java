@@ -0,0 +1,47 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class CsvReportReaderTest {
+
+  @Test
+  final void testSingleCharacterSeparator() throws IOException {
+    try (CsvReportReader reader = new CsvReportReader(new StringReader("sep=,\nName,\"a, b\",\"x\"\"y\"\n"))) {
+      assertThat(reader.readRow()).containsExactly("Name", "a, b", "x\"y");
+      assertThat(reader.readRow()).isNull();
+    }
+  }
+
+  @Test
+  final void testMultiCharacterSeparator() throws IOException {
+    try (CsvReportReader reader = new CsvReportReader(
+        new StringReader("sep=;;\nName;;Version;Text;;\"a;;b\";;\n\nguava;;31.0;;;\n"))) {
+      assertThat(reader.readRow()).containsExactly("Name", "Version;Text", "a;;b", "");
+      assertThat(reader.readRow()).containsExactly("");
+      assertThat(reader.readRow()).containsExactly("guava", "31.0", ";");
+      assertThat(reader.readRow()).isNull();
+    }
+  }
+
+  @Test
+  final void testSeparatorWithTab() throws IOException {
+    try (CsvReportReader reader = new CsvReportReader(new StringReader("sep=,\t\nName,\tVersion,Text\n"))) {
+      assertThat(reader.readRow()).containsExactly("Name", "Version,Text");
+    }
+    try (CsvReportReader reader = new CsvReportReader(new StringReader("sep=\t\nName\tVersion\n"))) {
+      assertThat(reader.readRow()).containsExactly("Name", "Version");
+    }
+    try (CsvReportReader reader = new CsvReportReader(new StringReader("Name\tVersion\n"))) {
+      assertThat(reader.readRow()).as("tab without separator line").containsExactly("Name", "Version");
+    }
+  }
+
+}
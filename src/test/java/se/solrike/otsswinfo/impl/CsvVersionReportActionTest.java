@@ -0,0 +1,82 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Lucas Persson
+ */
+class CsvVersionReportActionTest {
+
+  @TempDir
+  File mReportsDir;
+
+  private List<ArtifactMetadata> mDependencies;
+
+  @BeforeEach
+  public void setup() {
+    ArtifactMetadata slf4j = new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.30");
+    slf4j.license = "MIT License";
+    slf4j.newToRelease = true;
+    mDependencies = List.of(slf4j);
+  }
+
+  @Test
+  final void testWithoutOptionalColumns() throws IOException {
+    File file = new CsvVersionReportAction().generateReport(",", mReportsDir, List.of(), false, mDependencies);
+
+    assertThat(lines(file)).as("the lines end with a separator").containsExactly("sep=,", "",
+        "Name,Version,Package Name,Manufacturer URL,Description,License,",
+        "slf4j-api,1.7.30,org.slf4j,\"\",\"\",\"MIT License\",");
+  }
+
+  @Test
+  final void testNewToRelease() throws IOException {
+    File file = new CsvVersionReportAction().generateReport(",", mReportsDir, List.of(), true, mDependencies);
+
+    assertThat(lines(file)).containsExactly("sep=,", "",
+        "Name,Version,Package Name,Manufacturer URL,Description,License,New to Release",
+        "slf4j-api,1.7.30,org.slf4j,\"\",\"\",\"MIT License\",Yes");
+  }
+
+  @Test
+  final void testOriginsWithoutNewToRelease() throws IOException {
+    // without a dependency graph there is no path
+    DependencyOrigins origins = new DependencyOrigins();
+    origins.add(":runtimeClasspath", mDependencies);
+
+    File file = new CsvVersionReportAction().generateReport(",", mReportsDir, List.of(), false, mDependencies,
+        origins);
+
+    assertThat(lines(file)).containsExactly("sep=,", "",
+        "Name,Version,Package Name,Manufacturer URL,Description,License,Origins,Introduced Via",
+        "slf4j-api,1.7.30,org.slf4j,\"\",\"\",\"MIT License\",\":runtimeClasspath\",\"\"");
+  }
+
+  @Test
+  final void testAllColumns() throws IOException {
+    DependencyOrigins origins = new DependencyOrigins();
+    origins.add(":runtimeClasspath", mDependencies);
+
+    File file = new CsvVersionReportAction().generateReport("\t", mReportsDir, List.of("Release 1.0"), true,
+        mDependencies, origins);
+
+    assertThat(lines(file)).containsExactly("sep=\t", "Release 1.0", "",
+        "Name\tVersion\tPackage Name\tManufacturer URL\tDescription\tLicense\tNew to Release\tOrigins\tIntroduced Via",
+        "slf4j-api\t1.7.30\torg.slf4j\t\"\"\t\"\"\t\"MIT License\"\tYes\t\":runtimeClasspath\"\t\"\"");
+  }
+
+  private static List<String> lines(File file) throws IOException {
+    return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+  }
+
+}
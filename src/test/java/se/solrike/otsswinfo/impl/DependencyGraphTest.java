@@ -0,0 +1,89 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class DependencyGraphTest {
+
+  @Test
+  final void testOf() {
+    // project -> a -> c, project -> b -> c and b -> a
+    ResolvedDependency root = dependency("se.solrike:app:1.0.0");
+    ResolvedDependency a = dependency("org.example:a:1.0");
+    ResolvedDependency b = dependency("org.example:b:1.0");
+    ResolvedDependency c = dependency("org.example:c:1.0");
+    when(a.getChildren()).thenReturn(Set.of(c));
+    when(a.getParents()).thenReturn(orderedSet(root, b));
+    when(b.getChildren()).thenReturn(orderedSet(c, a));
+    when(b.getParents()).thenReturn(Set.of(root));
+    when(c.getParents()).thenReturn(orderedSet(b, a));
+    StringPool pool = new StringPool();
+
+    DependencyGraph graph = DependencyGraph.of(orderedSet(a, b), pool);
+
+    assertThat(graph.size()).isEqualTo(4);
+    assertThat(graph.isRoot(DependencyGraph.ROOT)).isTrue();
+    assertThat(graph.getName(DependencyGraph.ROOT)).isNull();
+    int nodeA = graph.indexOf("org.example:a:1.0");
+    int nodeB = graph.indexOf("org.example:b:1.0");
+    int nodeC = graph.indexOf("org.example:c:1.0");
+    assertThat(graph.indexOf("org.example:d:1.0")).isEqualTo(-1);
+    assertThat(graph.getChildren(DependencyGraph.ROOT)).containsExactly(nodeA, nodeB);
+    assertThat(graph.getChildren(nodeB)).containsExactly(nodeC, nodeA);
+    assertThat(graph.getParents(nodeA)).as("same order as in Gradle's graph").containsExactly(DependencyGraph.ROOT,
+        nodeB);
+    assertThat(graph.getParents(nodeC)).containsExactly(nodeB, nodeA);
+    assertThat(graph.getGroup(nodeC)).isEqualTo("org.example");
+    assertThat(graph.getModule(nodeC)).isEqualTo("c");
+    assertThat(graph.getVersion(nodeC)).isEqualTo("1.0");
+    assertThat(graph.getNodesReached()).as("a and c are reached twice").isEqualTo(5);
+    assertThat(graph.getGroup(nodeA)).as("pooled").isSameAs(graph.getGroup(nodeB));
+    assertThat(pool.size()).as("the group, the version, three modules and three GAVs").isEqualTo(8);
+  }
+
+  @Test
+  final void testMetadata() {
+    ResolvedDependency a = dependency("org.example:a:1.0");
+    DependencyGraph graph = DependencyGraph.of(Set.of(a), new StringPool());
+    ArtifactMetadata metadata = new ArtifactMetadata(graph, 1);
+    metadata.license = new String("MIT License");
+    StringPool pool = new StringPool();
+    String license = pool.intern("MIT License");
+
+    metadata.intern(pool);
+
+    assertThat(metadata.artifactName).isEqualTo("org.example:a:1.0");
+    assertThat(metadata.group).isEqualTo("org.example");
+    assertThat(metadata.name).isEqualTo("a");
+    assertThat(metadata.version).isEqualTo("1.0");
+    assertThat(metadata.license).isSameAs(license);
+    assertThat(new ArtifactMetadata(metadata).graph).isSameAs(graph);
+  }
+
+  @SafeVarargs
+  private static <T> Set<T> orderedSet(T... elements) {
+    return new LinkedHashSet<>(List.of(elements));
+  }
+
+  private static ResolvedDependency dependency(String gav) {
+    String[] parts = gav.split(":");
+    ResolvedDependency dependency = mock(ResolvedDependency.class);
+    when(dependency.getName()).thenReturn(gav);
+    when(dependency.getModuleGroup()).thenReturn(parts[0]);
+    when(dependency.getModuleName()).thenReturn(parts[1]);
+    when(dependency.getModuleVersion()).thenReturn(parts[2]);
+    return dependency;
+  }
+
+}
@@ -0,0 +1,84 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class DependencyOriginsTest {
+
+  @Test
+  final void testNameOf() {
+    assertThat(DependencyOrigins.nameOf(":", "runtimeClasspath")).isEqualTo(":runtimeClasspath");
+    assertThat(DependencyOrigins.nameOf(":app", "runtimeClasspath")).isEqualTo(":app:runtimeClasspath");
+  }
+
+  @Test
+  final void testOriginsAndShortestPath() {
+    // :a has a -> b -> c and :b has c directly
+    ResolvedDependency a = dependency("org.example:a:1.0");
+    ResolvedDependency b = dependency("org.example:b:1.0");
+    ResolvedDependency c = dependency("org.example:c:1.0");
+    when(a.getChildren()).thenReturn(Set.of(b));
+    when(b.getChildren()).thenReturn(Set.of(c));
+    StringPool pool = new StringPool();
+    DependencyOrigins origins = new DependencyOrigins();
+
+    assertThat(origins.add(":a:runtimeClasspath", scan(DependencyGraph.of(Set.of(a), pool)))).isZero();
+    assertThat(origins.add(":a:testRuntimeClasspath", scan(DependencyGraph.of(Set.of(b), pool)))).isEqualTo(1);
+    assertThat(origins.add(":b:runtimeClasspath", scan(DependencyGraph.of(Set.of(c), pool)))).isEqualTo(2);
+
+    assertThat(origins.size()).isEqualTo(3);
+    assertThat(origins.getOrigins("org.example:a:1.0")).containsExactly(":a:runtimeClasspath");
+    assertThat(origins.getOrigins("org.example:c:1.0")).containsExactly(":a:runtimeClasspath",
+        ":a:testRuntimeClasspath", ":b:runtimeClasspath");
+    assertThat(origins.getPath("org.example:a:1.0")).containsExactly("org.example:a:1.0");
+    assertThat(origins.getPath("org.example:b:1.0")).as("shorter in the second origin")
+        .containsExactly("org.example:b:1.0");
+    assertThat(origins.getPath("org.example:c:1.0")).containsExactly("org.example:c:1.0");
+    assertThat(origins.getOrigins("org.example:d:1.0")).isEmpty();
+    assertThat(origins.getPath("org.example:d:1.0")).isEmpty();
+  }
+
+  @Test
+  final void testPathWithoutShorterOrigin() {
+    ResolvedDependency a = dependency("org.example:a:1.0");
+    ResolvedDependency b = dependency("org.example:b:1.0");
+    when(a.getChildren()).thenReturn(Set.of(b));
+    DependencyOrigins origins = new DependencyOrigins();
+
+    origins.add(":runtimeClasspath", scan(DependencyGraph.of(Set.of(a), new StringPool())));
+    origins.add(":compileClasspath", List.of(new ArtifactMetadata("org.example", "b", "1.0")));
+
+    assertThat(origins.getOrigins("org.example:b:1.0")).containsExactly(":runtimeClasspath", ":compileClasspath");
+    assertThat(origins.getPath("org.example:b:1.0")).containsExactly("org.example:a:1.0", "org.example:b:1.0");
+  }
+
+  private static List<ArtifactMetadata> scan(DependencyGraph graph) {
+    List<ArtifactMetadata> scanned = new ArrayList<>();
+    for (int node = 1; node < graph.size(); node++) {
+      scanned.add(new ArtifactMetadata(graph, node));
+    }
+    return scanned;
+  }
+
+  private static ResolvedDependency dependency(String gav) {
+    String[] parts = gav.split(":");
+    ResolvedDependency dependency = mock(ResolvedDependency.class);
+    when(dependency.getName()).thenReturn(gav);
+    when(dependency.getModuleGroup()).thenReturn(parts[0]);
+    when(dependency.getModuleName()).thenReturn(parts[1]);
+    when(dependency.getModuleVersion()).thenReturn(parts[2]);
+    return dependency;
+  }
+
+}
@@ -0,0 +1,122 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import groovy.json.JsonSlurper;
+import se.solrike.otsswinfo.VersionStabilityPolicy;
+
+/**
+ * @author Lucas Persson
+ */
+class LatestVersionCacheTest {
+
+  private static final Duration TTL = Duration.ofHours(1);
+  private static final String SCOPE = LatestVersionCache.scopeOf(VersionStabilityPolicy.defaultPolicy().getIdentity(),
+      List.of("https://repo.maven.apache.org/maven2/"));
+
+  @TempDir
+  File mCacheDir;
+
+  @Test
+  final void testSaveAndLoad() {
+    LatestVersionCache cache = new LatestVersionCache(mCacheDir, SCOPE, TTL);
+    cache.put("org.slf4j:slf4j-api", "1.7.36");
+
+    assertThat(cache.get("org.slf4j:slf4j-api")).isEqualTo("1.7.36");
+    cache.save();
+
+    assertThat(new LatestVersionCache(mCacheDir, SCOPE, TTL).get("org.slf4j:slf4j-api")).isEqualTo("1.7.36");
+    assertThat(new LatestVersionCache(mCacheDir, SCOPE, TTL).get("com.google.guava:guava")).isNull();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  final void testExpiredEntriesAreIgnored() throws IOException {
+    long now = System.currentTimeMillis();
+    writeCacheFile("{\"version\":1,\"entries\":{"
+        + "\"" + SCOPE + " org.slf4j:slf4j-api\":{\"version\":\"1.7.30\",\"timestamp\":" + (now - 2 * 3_600_000L) + "},"
+        + "\"" + SCOPE + " com.google.guava:guava\":{\"version\":\"31.1-jre\",\"timestamp\":" + now + "},"
+        + "\"" + SCOPE + " junit:junit\":{\"version\":\"4.13.2\",\"timestamp\":"
+        + (now - LatestVersionCache.MAX_AGE.toMillis() - 1000) + "}}}");
+
+    LatestVersionCache cache = new LatestVersionCache(mCacheDir, SCOPE, TTL);
+
+    assertThat(cache.get("org.slf4j:slf4j-api")).as("older than the time to live").isNull();
+    assertThat(cache.get("com.google.guava:guava")).isEqualTo("31.1-jre");
+    assertThat(new LatestVersionCache(mCacheDir, SCOPE, Duration.ofHours(3)).get("org.slf4j:slf4j-api"))
+        .as("within a longer time to live").isEqualTo("1.7.30");
+
+    cache.put("org.springframework:spring-core", "5.3.20");
+    cache.save();
+    Map<String, Object> entries = (Map<String, Object>) ((Map<String, Object>) new JsonSlurper()
+        .parse(new File(mCacheDir, LatestVersionCache.FILE_NAME))).get("entries");
+    assertThat(entries).as("only entries older than the max age are removed from the file").containsOnlyKeys(
+        SCOPE + " org.slf4j:slf4j-api", SCOPE + " com.google.guava:guava", SCOPE + " org.springframework:spring-core");
+    assertThat(new LatestVersionCache(mCacheDir, SCOPE, Duration.ofHours(3)).get("org.slf4j:slf4j-api"))
+        .as("kept for builds with a longer time to live").isEqualTo("1.7.30");
+  }
+
+  @Test
+  final void testScopeIsolation() {
+    String otherPolicy = LatestVersionCache.scopeOf(
+        VersionStabilityPolicy.defaultPolicy().withKeywords("jre").getIdentity(),
+        List.of("https://repo.maven.apache.org/maven2/"));
+    String otherRepositories = LatestVersionCache.scopeOf(VersionStabilityPolicy.defaultPolicy().getIdentity(),
+        List.of("https://repo.maven.apache.org/maven2/", "https://maven.example.com/releases/"));
+    LatestVersionCache cache = new LatestVersionCache(mCacheDir, SCOPE, TTL);
+    cache.put("com.google.guava:guava", "23.0");
+    cache.save();
+
+    assertThat(otherPolicy).isNotEqualTo(SCOPE);
+    assertThat(otherRepositories).isNotEqualTo(SCOPE).isNotEqualTo(otherPolicy);
+    assertThat(LatestVersionCache.scopeOf(VersionStabilityPolicy.defaultPolicy().getIdentity(),
+        List.of("https://repo.maven.apache.org/maven2/"))).as("the same policy and repositories").isEqualTo(SCOPE);
+    assertThat(new LatestVersionCache(mCacheDir, otherPolicy, TTL).get("com.google.guava:guava")).isNull();
+    assertThat(new LatestVersionCache(mCacheDir, otherRepositories, TTL).get("com.google.guava:guava")).isNull();
+    assertThat(new LatestVersionCache(mCacheDir, SCOPE, TTL).get("com.google.guava:guava")).isEqualTo("23.0");
+  }
+
+  @Test
+  final void testMergeOnSave() {
+    // two builds that loaded the cache before any of them saved, one with another scope
+    String otherScope = LatestVersionCache.scopeOf("other", List.of());
+    LatestVersionCache build1 = new LatestVersionCache(mCacheDir, SCOPE, TTL);
+    LatestVersionCache build2 = new LatestVersionCache(mCacheDir, otherScope, TTL);
+    build1.put("org.slf4j:slf4j-api", "1.7.36");
+    build2.put("org.slf4j:slf4j-api", "2.0.0");
+
+    build1.save();
+    build2.save();
+
+    assertThat(new LatestVersionCache(mCacheDir, SCOPE, TTL).get("org.slf4j:slf4j-api")).isEqualTo("1.7.36");
+    assertThat(new LatestVersionCache(mCacheDir, otherScope, TTL).get("org.slf4j:slf4j-api")).isEqualTo("2.0.0");
+  }
+
+  @Test
+  final void testCorruptFileIsEmpty() throws IOException {
+    writeCacheFile("{\"version\":1,\"entries\":{\"" + SCOPE + " org.slf4j:slf4j-api\":");
+
+    LatestVersionCache cache = new LatestVersionCache(mCacheDir, SCOPE, TTL);
+
+    assertThat(cache.get("org.slf4j:slf4j-api")).isNull();
+    cache.put("org.slf4j:slf4j-api", "1.7.36");
+    cache.save();
+    assertThat(new LatestVersionCache(mCacheDir, SCOPE, TTL).get("org.slf4j:slf4j-api")).isEqualTo("1.7.36");
+  }
+
+  private void writeCacheFile(String json) throws IOException {
+    Files.write(new File(mCacheDir, LatestVersionCache.FILE_NAME).toPath(), json.getBytes(StandardCharsets.UTF_8));
+  }
+
+}
@@ -0,0 +1,60 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class LicenseExpressionTest {
+
+  private final SpdxLicenses mSpdxLicenses = SpdxLicenses.getDefault();
+
+  @Test
+  final void testParseName() {
+    assertThat(LicenseExpression.parse("The Apache Software License, Version 2.0", mSpdxLicenses))
+        .hasToString("Apache-2.0");
+    assertThat(LicenseExpression.parse("Common Development and Distribution License (CDDL) v1.0", mSpdxLicenses))
+        .hasToString("CDDL-1.0");
+    assertThat(LicenseExpression.parse("Some (odd) license", mSpdxLicenses)).hasToString("Some (odd) license");
+    assertThat(LicenseExpression.parse("CDDL + GPLv2 with classpath exception", mSpdxLicenses))
+        .hasToString("CDDL-1.1 OR GPL-2.0-only WITH Classpath-exception-2.0");
+  }
+
+  @Test
+  final void testParseExpression() {
+    assertThat(LicenseExpression.parse("EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0", mSpdxLicenses))
+        .hasToString("EPL-2.0 OR GPL-2.0-only WITH Classpath-exception-2.0");
+    assertThat(LicenseExpression.parse("(MIT OR Apache License 2.0) AND BSD-3-Clause", mSpdxLicenses))
+        .hasToString("(MIT OR Apache-2.0) AND BSD-3-Clause");
+    assertThat(LicenseExpression.parse("MIT AND (Apache-2.0", mSpdxLicenses)).hasToString("MIT AND (Apache-2.0");
+    assertThat(LicenseExpression.parse("MIT OR", mSpdxLicenses)).hasToString("MIT OR");
+  }
+
+  @Test
+  final void testIsAllowed() {
+    Set<String> allowed = Set.of("EPL-2.0", "MIT", "GPL-2.0-only WITH Classpath-exception-2.0");
+
+    assertThat(LicenseExpression.parse("EPL-2.0 OR GPL-3.0", mSpdxLicenses).isAllowed(allowed::contains)).isTrue();
+    assertThat(LicenseExpression.parse("EPL-2.0 AND GPL-3.0", mSpdxLicenses).isAllowed(allowed::contains)).isFalse();
+    assertThat(LicenseExpression.parse("GPL-2.0 WITH Classpath-exception-2.0", mSpdxLicenses)
+        .isAllowed(allowed::contains)).isTrue();
+    assertThat(LicenseExpression.parse("GPL-2.0", mSpdxLicenses).isAllowed(allowed::contains)).isFalse();
+    assertThat(LicenseExpression.parse("MIT WITH Foo-exception", mSpdxLicenses).isAllowed(allowed::contains)).isTrue();
+  }
+
+  @Test
+  final void testIsSpdx() {
+    assertThat(LicenseExpression.parse("The Apache Software License, Version 2.0", mSpdxLicenses).isSpdx()).isTrue();
+    assertThat(LicenseExpression.parse("CDDL + GPLv2 with classpath exception", mSpdxLicenses).isSpdx()).isTrue();
+    assertThat(LicenseExpression.parse("(MIT OR Apache License 2.0) AND BSD-3-Clause", mSpdxLicenses).isSpdx())
+        .isTrue();
+    assertThat(LicenseExpression.parse("Some (odd) license", mSpdxLicenses).isSpdx()).isFalse();
+    assertThat(LicenseExpression.parse("MIT OR Some license", mSpdxLicenses).isSpdx()).isFalse();
+    assertThat(LicenseExpression.parse("MIT WITH Foo-exception", mSpdxLicenses).isSpdx()).isFalse();
+  }
+
+}
@@ -0,0 +1,41 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class LicenseIndexTest {
+
+  @Test
+  final void testContains() {
+    LicenseIndex index = new LicenseIndex(new SpdxLicenses(List.of()));
+    index.addAll("GPL-2.0\n\nThe MIT License\nApache License,  Version 2.0\n");
+
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.contains("GPL-2.0")).isTrue();
+    assertThat(index.contains("MIT License")).isTrue();
+    assertThat(index.contains("the mit license")).isTrue();
+    assertThat(index.contains(" Apache License, Version 2.0")).isTrue();
+    assertThat(index.contains("LGPL-2.1")).isFalse();
+    assertThat(index.contains("GPL")).isFalse();
+    assertThat(index.contains("")).isFalse();
+    assertThat(index.contains(null)).isFalse();
+  }
+
+  @Test
+  final void testContainsAlias() {
+    LicenseIndex index = new LicenseIndex(
+        new SpdxLicenses(List.of("Apache-2.0", "ASL 2.0", "Apache License, Version 2.0")));
+    index.add("ASL 2.0");
+
+    assertThat(index.contains("The Apache License, Version 2.0")).isTrue();
+    assertThat(index.contains("apache-2.0")).isTrue();
+    assertThat(index.contains("Apache License")).isFalse();
+  }
+
+}
@@ -0,0 +1,110 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * @author Lucas Persson
+ */
+class MavenMetadataVersionListerTest {
+
+  @TempDir
+  File mRepoDir;
+
+  @Test
+  final void testParseVersions() throws XMLStreamException {
+    String metadata = metadata("1.7.30", "1.7.36", "2.0.0-alpha1");
+
+    List<String> versions = MavenMetadataVersionLister
+        .parseVersions(new ByteArrayInputStream(metadata.getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(versions).containsExactly("1.7.30", "1.7.36", "2.0.0-alpha1");
+  }
+
+  @Test
+  final void testMetadataPath() {
+    assertThat(MavenMetadataVersionLister.metadataPath("org.slf4j:slf4j-api"))
+        .isEqualTo("org/slf4j/slf4j-api/maven-metadata.xml");
+  }
+
+  @Test
+  final void testListVersionsInFileRepositories() throws IOException {
+    File repo1 = new File(mRepoDir, "repo1");
+    File repo2 = new File(mRepoDir, "repo2");
+    writeMetadata(repo1, "org.slf4j:slf4j-api", "1.7.30", "1.7.36");
+    writeMetadata(repo2, "org.slf4j:slf4j-api", "1.7.36", "2.0.7");
+    writeMetadata(repo2, "com.google.guava:guava", "31.1-jre");
+
+    MavenMetadataVersionLister lister = new MavenMetadataVersionLister(
+        List.of(new MavenMetadataVersionLister.Repository(repo1.toURI()),
+            new MavenMetadataVersionLister.Repository(repo2.toURI())));
+    Map<String, List<String>> versions = lister
+        .listVersions(List.of("org.slf4j:slf4j-api", "com.google.guava:guava", "org.example:missing"));
+
+    assertThat(versions).containsOnlyKeys("org.slf4j:slf4j-api", "com.google.guava:guava");
+    assertThat(versions.get("org.slf4j:slf4j-api")).containsExactly("1.7.30", "1.7.36", "2.0.7");
+    assertThat(versions.get("com.google.guava:guava")).containsExactly("31.1-jre");
+  }
+
+  @Test
+  final void testRefusedModulesAreNotListed() throws IOException {
+    File repo = new File(mRepoDir, "repo");
+    writeMetadata(repo, "org.slf4j:slf4j-api", "1.7.30");
+    writeMetadata(repo, "com.google.guava:guava", "31.1-jre");
+    // the private repository only refuses guava
+    HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", exchange -> {
+      exchange.sendResponseHeaders(exchange.getRequestURI().getPath().contains("guava") ? 401 : 404, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      MavenMetadataVersionLister lister = new MavenMetadataVersionLister(List.of(
+          new MavenMetadataVersionLister.Repository(repo.toURI()), new MavenMetadataVersionLister.Repository(
+              URI.create("http://localhost:" + server.getAddress().getPort() + "/private/"))));
+
+      Map<String, List<String>> versions = lister
+          .listVersions(List.of("org.slf4j:slf4j-api", "com.google.guava:guava"));
+
+      assertThat(versions).as("guava might have other versions in the private repository")
+          .containsOnlyKeys("org.slf4j:slf4j-api");
+    }
+    finally {
+      server.stop(0);
+    }
+  }
+
+  private static void writeMetadata(File repo, String module, String... versions) throws IOException {
+    File file = new File(repo, MavenMetadataVersionLister.metadataPath(module));
+    Files.createDirectories(file.getParentFile().toPath());
+    Files.writeString(file.toPath(), metadata(versions));
+  }
+
+  private static String metadata(String... versions) {
+    StringBuilder metadata = new StringBuilder(
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n  <versioning>\n    <latest>");
+    metadata.append(versions[versions.length - 1]).append("</latest>\n    <versions>\n");
+    for (String version : versions) {
+      metadata.append("      <version>").append(version).append("</version>\n");
+    }
+    return metadata.append("    </versions>\n  </versioning>\n</metadata>\n").toString();
+  }
+
+}
@@ -1,10 +1,11 @@
 package se.solrike.otsswinfo.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
-import org.gradle.api.artifacts.ResolvedDependency;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -21,17 +22,8 @@ class NewToReleaseHelperTest {
   final void setup() {
     mPreviousReport = "netty-buffer\t4.1.73.Final\tio.netty\thttp://example.com\nclassgraph\t4.8.102\tio.github.classgraph\thttps://example.org";
 
-    ResolvedDependency dep = mock(ResolvedDependency.class);
-    when(dep.getModuleName()).thenReturn("netty-buffer");
-    when(dep.getModuleGroup()).thenReturn("io.netty");
-    when(dep.getModuleVersion()).thenReturn("4.1.73.Final");
-    mArtifactMetadataNetty4173 = new ArtifactMetadata("io.netty:netty-buffer:4.1.73.Final", dep);
-
-    ResolvedDependency dep2 = mock(ResolvedDependency.class);
-    when(dep2.getModuleName()).thenReturn("netty-buffer");
-    when(dep2.getModuleGroup()).thenReturn("io.netty");
-    when(dep2.getModuleVersion()).thenReturn("4.1.77.Final");
-    mArtifactMetadataNetty4177 = new ArtifactMetadata("io.netty:netty-buffer:4.1.77.Final", dep2);
+    mArtifactMetadataNetty4173 = new ArtifactMetadata("io.netty", "netty-buffer", "4.1.73.Final");
+    mArtifactMetadataNetty4177 = new ArtifactMetadata("io.netty", "netty-buffer", "4.1.77.Final");
 
   }
 
@@ -47,4 +39,27 @@ class NewToReleaseHelperTest {
     assertThat(newToRelease).isTrue();
   }
 
+  @Test
+  final void testIsDependecyNewToReleaseWithMetacharacters() {
+    // the dots in the version must not match any character
+    boolean newToRelease = NewToReleaseHelper.isDependecyNewToRelease(mArtifactMetadataNetty4173,
+        "netty-buffer\t4x1x73xFinal\tio.netty\n");
+    assertThat(newToRelease).isTrue();
+  }
+
+  @Test
+  final void testUpgradedAndRemoved() {
+    String previousReport = "sep=,\nSBOM for product, 1.0\n\nName,Version,Package Name,Manufacturer URL,\n"
+        + "netty-buffer,4.1.73.Final,io.netty,\"http://example.com\",\n"
+        + "classgraph,4.8.102,io.github.classgraph,\"https://example.org\",\n";
+    NewToReleaseHelper helper = new NewToReleaseHelper(new StringReader(previousReport));
+
+    assertThat(helper.isDependecyNewToRelease(mArtifactMetadataNetty4177)).isTrue();
+    assertThat(helper.getRemovedDependencies(List.of(mArtifactMetadataNetty4177)))
+        .containsExactly("io.github.classgraph:classgraph:4.8.102");
+    assertThat(helper.getUpgradedDependencies(List.of(mArtifactMetadataNetty4177)))
+        .containsExactly(Map.entry(mArtifactMetadataNetty4177, "4.1.73.Final"));
+    assertThat(helper.getUpgradedDependencies(List.of(mArtifactMetadataNetty4173))).isEmpty();
+  }
+
 }
@@ -0,0 +1,81 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class PomExtractorTest {
+
+  private final PomExtractor mExtractor = new PomExtractor();
+
+  @Test
+  final void testLibraryPom() throws XMLStreamException {
+    PomMetadata pomMetadata = extract("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+        + "  <parent>\n    <groupId>org.apache</groupId>\n    <artifactId>apache</artifactId>\n"
+        + "    <version>21</version>\n    <relativePath/>\n  </parent>\n"
+        + "  <artifactId>commons-lang3</artifactId>\n"
+        + "  <description>\n    Apache Commons Lang, a package of Java utility classes for the\n"
+        + "    classes that are in java.lang's hierarchy.\n  </description>\n"
+        + "  <url>https://commons.apache.org/proper/commons-lang/</url>\n"
+        + "  <licenses>\n    <license>\n      <name>Apache License, Version 2.0</name>\n"
+        + "      <url>https://www.apache.org/licenses/LICENSE-2.0.txt</url>\n    </license>\n"
+        + "    <license>\n      <name>MIT</name>\n    </license>\n  </licenses>\n"
+        + "  <developers>\n    <developer>\n      <url>https://example.com/dev</url>\n"
+        + "      <description>developer</description>\n    </developer>\n  </developers>\n"
+        + "</project>\n");
+
+    assertThat(pomMetadata.description).isEqualTo(
+        "Apache Commons Lang, a package of Java utility classes for the classes that are in java.lang's hierarchy.");
+    assertThat(pomMetadata.url).isEqualTo("https://commons.apache.org/proper/commons-lang/");
+    assertThat(pomMetadata.license).isEqualTo("Apache License, Version 2.0");
+    assertThat(pomMetadata.licenseUrl).isEqualTo("https://www.apache.org/licenses/LICENSE-2.0.txt");
+    assertThat(pomMetadata.parent).isEqualTo("org.apache:apache:21");
+  }
+
+  @Test
+  final void testPomWithoutInfo() throws XMLStreamException {
+    PomMetadata pomMetadata = extract("<project>\n  <artifactId>lib</artifactId>\n"
+        + "  <description>${project.name}</description>\n  <url> </url>\n"
+        + "  <licenses>\n    <license>\n      <url><![CDATA[https://example.com/license]]></url>\n"
+        + "    </license>\n  </licenses>\n</project>");
+
+    assertThat(pomMetadata.description).isNull();
+    assertThat(pomMetadata.url).isNull();
+    assertThat(pomMetadata.license).isEmpty();
+    assertThat(pomMetadata.licenseUrl).isEqualTo("https://example.com/license");
+    assertThat(pomMetadata.parent).isNull();
+  }
+
+  @Test
+  final void testStopsWhenAllInfoIsFound() throws XMLStreamException {
+    // the rest of the POM isn't well formed so the extractor must stop before it
+    PomMetadata pomMetadata = extract("<project>\n  <parent><groupId>g</groupId><artifactId>p</artifactId>"
+        + "<version>1</version></parent>\n  <description>BOM</description>\n  <url>https://example.com</url>\n"
+        + "  <licenses><license><name>MIT</name></license></licenses>\n  <dependencyManagement><broken>");
+
+    assertThat(pomMetadata.parent).isEqualTo("g:p:1");
+    assertThat(pomMetadata.license).isEqualTo("MIT");
+    assertThat(pomMetadata.licenseUrl).isEmpty();
+  }
+
+  @Test
+  final void testMalformedPom() {
+    assertThatThrownBy(() -> extract("<project><description>oops</project>"))
+        .isInstanceOf(XMLStreamException.class);
+  }
+
+  private PomMetadata extract(String pom) throws XMLStreamException {
+    return mExtractor.extract(new ByteArrayInputStream(pom.getBytes(StandardCharsets.UTF_8)));
+  }
+
+}
@@ -0,0 +1,103 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Lucas Persson
+ */
+class PomMetadataCacheTest {
+
+  @TempDir
+  File mCacheDir;
+
+  @Test
+  final void testSaveAndLoad() {
+    PomMetadataCache cache = new PomMetadataCache(mCacheDir);
+    cache.put("org.slf4j:slf4j-api:1.7.30", pomMetadata("MIT License", "org.slf4j:slf4j-parent:1.7.30"));
+
+    cache.save();
+
+    PomMetadata pomMetadata = new PomMetadataCache(mCacheDir).get("org.slf4j:slf4j-api:1.7.30");
+    assertThat(pomMetadata.license).isEqualTo("MIT License");
+    assertThat(pomMetadata.licenseUrl).isEqualTo("https://example.com/MIT License");
+    assertThat(pomMetadata.url).isEqualTo("https://www.slf4j.org");
+    assertThat(pomMetadata.description).isEqualTo("The slf4j API");
+    assertThat(pomMetadata.parent).isEqualTo("org.slf4j:slf4j-parent:1.7.30");
+  }
+
+  @Test
+  final void testMergeOnSave() {
+    // two builds that loaded the cache before any of them saved
+    PomMetadataCache build1 = new PomMetadataCache(mCacheDir);
+    PomMetadataCache build2 = new PomMetadataCache(mCacheDir);
+    build1.put("org.slf4j:slf4j-api:1.7.30", pomMetadata("MIT License", null));
+    build2.put("com.google.guava:guava:31.0.1-jre", pomMetadata("Apache License, Version 2.0", null));
+
+    build1.save();
+    build2.save();
+
+    PomMetadataCache cache = new PomMetadataCache(mCacheDir);
+    assertThat(cache.get("org.slf4j:slf4j-api:1.7.30")).as("kept when the other build saved").isNotNull();
+    assertThat(cache.get("com.google.guava:guava:31.0.1-jre")).isNotNull();
+  }
+
+  @Test
+  final void testSnapshotsAreNotCached() {
+    PomMetadataCache cache = new PomMetadataCache(mCacheDir);
+
+    cache.put("org.example:lib:1.0.0-SNAPSHOT", pomMetadata("MIT License", null));
+    cache.save();
+
+    assertThat(PomMetadataCache.isCacheable("org.example:lib:1.0.0-SNAPSHOT")).isFalse();
+    assertThat(PomMetadataCache.isCacheable("org.example:lib:1.0.0")).isTrue();
+    assertThat(cache.get("org.example:lib:1.0.0-SNAPSHOT")).isNull();
+    assertThat(new File(mCacheDir, PomMetadataCache.FILE_NAME)).as("nothing to save").doesNotExist();
+  }
+
+  @Test
+  final void testMissingOrCorruptFileIsEmpty() throws IOException {
+    assertThat(new PomMetadataCache(mCacheDir).get("org.slf4j:slf4j-api:1.7.30")).isNull();
+
+    File cacheFile = new File(mCacheDir, PomMetadataCache.FILE_NAME);
+    for (String corrupt : new String[] { "{\"version\":1,\"entries\":{\"org.slf4j:slf4j-api:1.7.30\":{", "[]",
+        "{\"version\":1,\"entries\":[]}" }) {
+      Files.write(cacheFile.toPath(), corrupt.getBytes(StandardCharsets.UTF_8));
+      PomMetadataCache cache = new PomMetadataCache(mCacheDir);
+      assertThat(cache.get("org.slf4j:slf4j-api:1.7.30")).as(corrupt).isNull();
+
+      // and is overwritten when saved
+      cache.put("org.slf4j:slf4j-api:1.7.30", pomMetadata("MIT License", null));
+      cache.save();
+      assertThat(new PomMetadataCache(mCacheDir).get("org.slf4j:slf4j-api:1.7.30")).as(corrupt).isNotNull();
+    }
+  }
+
+  @Test
+  final void testOtherFormatVersionIsEmpty() throws IOException {
+    File cacheFile = new File(mCacheDir, PomMetadataCache.FILE_NAME);
+    Files.write(cacheFile.toPath(), ("{\"version\":" + (PomMetadataCache.FORMAT_VERSION + 1)
+        + ",\"entries\":{\"org.slf4j:slf4j-api:1.7.30\":{\"license\":\"MIT License\"}}}")
+            .getBytes(StandardCharsets.UTF_8));
+
+    assertThat(new PomMetadataCache(mCacheDir).get("org.slf4j:slf4j-api:1.7.30")).isNull();
+  }
+
+  private static PomMetadata pomMetadata(String license, String parent) {
+    PomMetadata pomMetadata = new PomMetadata();
+    pomMetadata.description = "The slf4j API";
+    pomMetadata.license = license;
+    pomMetadata.licenseUrl = "https://example.com/" + license;
+    pomMetadata.url = "https://www.slf4j.org";
+    pomMetadata.parent = parent;
+    return pomMetadata;
+  }
+
+}
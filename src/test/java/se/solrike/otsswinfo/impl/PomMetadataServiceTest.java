@@ -0,0 +1,105 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Provider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Lucas Persson
+ */
+class PomMetadataServiceTest {
+
+  @TempDir
+  File mCacheDir;
+
+  private PomMetadataService mService;
+  private final List<Collection<String>> mRead = new ArrayList<>();
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    Provider<File> cacheDirFile = mock(Provider.class);
+    when(cacheDirFile.get()).thenReturn(mCacheDir);
+    DirectoryProperty cacheDir = mock(DirectoryProperty.class);
+    when(cacheDir.getAsFile()).thenReturn(cacheDirFile);
+    PomMetadataService.Params params = mock(PomMetadataService.Params.class);
+    when(params.getCacheDir()).thenReturn(cacheDir);
+    mService = new PomMetadataService() {
+      @Override
+      public Params getParameters() {
+        return params;
+      }
+    };
+  }
+
+  @Test
+  final void testPomsAreOnlyReadOnce() {
+    Map<String, PomMetadata> first = mService
+        .getPomMetadata(List.of("org.slf4j:slf4j-api:1.7.30", "org.example:missing:1.0"), this::readPoms);
+    Map<String, PomMetadata> second = mService
+        .getPomMetadata(List.of("org.slf4j:slf4j-api:1.7.30", "org.example:missing:1.0"), this::readPoms);
+
+    assertThat(first).containsOnlyKeys("org.slf4j:slf4j-api:1.7.30");
+    assertThat(second).containsOnlyKeys("org.slf4j:slf4j-api:1.7.30");
+    assertThat(second.get("org.slf4j:slf4j-api:1.7.30")).isSameAs(first.get("org.slf4j:slf4j-api:1.7.30"));
+    assertThat(mRead).as("the POM that couldn't be read isn't read again").hasSize(1);
+    assertThat(mRead.get(0)).containsExactly("org.slf4j:slf4j-api:1.7.30", "org.example:missing:1.0");
+  }
+
+  @Test
+  final void testCloseSavesTheCache() {
+    mService.getPomMetadata(List.of("org.slf4j:slf4j-api:1.7.30", "org.example:missing:1.0"), this::readPoms);
+
+    mService.close();
+
+    PomMetadataCache cache = new PomMetadataCache(mCacheDir);
+    assertThat(cache.get("org.slf4j:slf4j-api:1.7.30").license).isEqualTo("MIT License");
+    assertThat(cache.get("org.example:missing:1.0")).as("unreadable POMs are only remembered in the build").isNull();
+  }
+
+  @Test
+  final void testCachedPomsAreNotRead() {
+    PomMetadataCache cache = new PomMetadataCache(mCacheDir);
+    cache.put("org.slf4j:slf4j-api:1.7.30", readPoms(List.of("org.slf4j:slf4j-api:1.7.30")).get(
+        "org.slf4j:slf4j-api:1.7.30"));
+    cache.save();
+    mRead.clear();
+
+    Map<String, PomMetadata> pomMetadata = mService.getPomMetadata(List.of("org.slf4j:slf4j-api:1.7.30"),
+        this::readPoms);
+
+    assertThat(pomMetadata.get("org.slf4j:slf4j-api:1.7.30").license).isEqualTo("MIT License");
+    assertThat(mRead).isEmpty();
+  }
+
+  @Test
+  final void testCloseWithoutLookups() {
+    mService.close();
+
+    assertThat(new File(mCacheDir, PomMetadataCache.FILE_NAME)).doesNotExist();
+  }
+
+  // only slf4j can be read
+  private Map<String, PomMetadata> readPoms(Collection<String> artifactNames) {
+    mRead.add(new ArrayList<>(artifactNames));
+    PomMetadata pomMetadata = new PomMetadata();
+    pomMetadata.license = "MIT License";
+    pomMetadata.licenseUrl = "https://opensource.org/licenses/MIT";
+    pomMetadata.url = "https://www.slf4j.org";
+    return artifactNames.contains("org.slf4j:slf4j-api:1.7.30") ? Map.of("org.slf4j:slf4j-api:1.7.30", pomMetadata)
+        : Map.of();
+  }
+
+}
@@ -0,0 +1,132 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import groovy.json.JsonSlurper;
+
+/**
+ * @author Lucas Persson
+ */
+class SbomWriterTest {
+
+  private SbomWriter mWriter;
+
+  @BeforeEach
+  final void setup() {
+    // app -> app-lib (excluded) -> spring-aop -> spring-core and app -> slf4j-api
+    ResolvedDependency root = dependency("se.solrike:app:1.0.0");
+    ResolvedDependency lib = dependency("se.solrike:app-lib:1.0.0");
+    ResolvedDependency aop = dependency("org.springframework:spring-aop:5.3.19");
+    ResolvedDependency core = dependency("org.springframework:spring-core:5.3.19");
+    ResolvedDependency slf4j = dependency("org.slf4j:slf4j-api:1.7.30");
+    when(root.getChildren()).thenReturn(Set.of(lib, slf4j));
+    when(lib.getParents()).thenReturn(Set.of(root));
+    when(lib.getChildren()).thenReturn(Set.of(aop));
+    when(aop.getParents()).thenReturn(Set.of(lib));
+    when(aop.getChildren()).thenReturn(Set.of(core));
+    when(core.getParents()).thenReturn(Set.of(aop));
+    when(slf4j.getParents()).thenReturn(Set.of(root));
+    DependencyGraph graph = DependencyGraph.of(root.getChildren(), new StringPool());
+
+    ArtifactMetadata aopMetadata = new ArtifactMetadata(graph, graph.indexOf(aop.getName()));
+    aopMetadata.license = "The Apache Software License, Version 2.0";
+    aopMetadata.licenseUrl = "https://www.apache.org/licenses/LICENSE-2.0";
+    aopMetadata.url = "https://github.com/spring-projects/spring-framework";
+    ArtifactMetadata coreMetadata = new ArtifactMetadata(graph, graph.indexOf(core.getName()));
+    coreMetadata.license = "Some (odd) license";
+    ArtifactMetadata slf4jMetadata = new ArtifactMetadata(graph, graph.indexOf(slf4j.getName()));
+    slf4jMetadata.license = "MIT OR Apache License 2.0";
+
+    mWriter = new SbomWriter("se.solrike", "app", "1.0.0", List.of(slf4jMetadata, aopMetadata, coreMetadata));
+  }
+
+  @Test
+  final void testCycloneDx() throws IOException {
+    StringWriter json = new StringWriter();
+    mWriter.writeCycloneDx(new JsonSnapshotEncoder(json));
+
+    Map<?, ?> bom = (Map<?, ?>) new JsonSlurper().parseText(json.toString());
+    assertThat(bom.get("bomFormat")).isEqualTo("CycloneDX");
+    assertThat(bom.get("specVersion")).isEqualTo("1.4");
+    List<?> components = (List<?>) bom.get("components");
+    assertThat(components).hasSize(3);
+    Map<?, ?> aop = (Map<?, ?>) components.get(1);
+    assertThat(aop.get("purl")).isEqualTo("pkg:maven/org.springframework/spring-aop@5.3.19");
+    assertThat(aop.get("licenses")).isEqualTo(List.of(Map.of("license",
+        Map.of("id", "Apache-2.0", "url", "https://www.apache.org/licenses/LICENSE-2.0"))));
+    assertThat(((Map<?, ?>) components.get(0)).get("licenses"))
+        .isEqualTo(List.of(Map.of("expression", "MIT OR Apache-2.0")));
+    assertThat(((Map<?, ?>) components.get(2)).get("licenses"))
+        .isEqualTo(List.of(Map.of("license", Map.of("name", "Some (odd) license"))));
+
+    List<Object> dependencies = new ArrayList<>((List<?>) bom.get("dependencies"));
+    assertThat(dependencies).contains(
+        Map.of("ref", "project", "dependsOn",
+            List.of("pkg:maven/org.slf4j/slf4j-api@1.7.30", "pkg:maven/org.springframework/spring-aop@5.3.19")),
+        Map.of("ref", "pkg:maven/org.springframework/spring-aop@5.3.19", "dependsOn",
+            List.of("pkg:maven/org.springframework/spring-core@5.3.19")));
+  }
+
+  @Test
+  final void testSpdx() throws IOException {
+    StringWriter json = new StringWriter();
+    mWriter.writeSpdx(new JsonSnapshotEncoder(json));
+
+    Map<?, ?> document = (Map<?, ?>) new JsonSlurper().parseText(json.toString());
+    assertThat(document.get("spdxVersion")).isEqualTo("SPDX-2.3");
+    List<?> packages = (List<?>) document.get("packages");
+    assertThat(packages).hasSize(4);
+    Map<?, ?> aop = (Map<?, ?>) packages.get(2);
+    assertThat(aop.get("SPDXID")).isEqualTo("SPDXRef-org.springframework-spring-aop-5.3.19");
+    assertThat(aop.get("licenseDeclared")).isEqualTo("Apache-2.0");
+    assertThat(((Map<?, ?>) packages.get(3)).get("licenseDeclared")).isEqualTo("NOASSERTION");
+
+    List<Object> relationships = new ArrayList<>((List<?>) document.get("relationships"));
+    assertThat(relationships).contains(
+        relationship("SPDXRef-DOCUMENT", "DESCRIBES", "SPDXRef-project"),
+        relationship("SPDXRef-project", "DEPENDS_ON", "SPDXRef-org.springframework-spring-aop-5.3.19"),
+        relationship("SPDXRef-org.springframework-spring-aop-5.3.19", "DEPENDS_ON",
+            "SPDXRef-org.springframework-spring-core-5.3.19"));
+  }
+
+  @Test
+  final void testSpdxIdsAreUnique() {
+    SbomWriter writer = new SbomWriter("se.solrike", "app", "1.0.0",
+        List.of(new ArtifactMetadata("org.a_b", "lib", "1.0"), new ArtifactMetadata("org.a-b", "lib", "1.0"),
+            new ArtifactMetadata("org.a-b", "lib", "1.0-2")));
+
+    assertThat(writer.spdxIdOf("org.a_b:lib:1.0")).isEqualTo("SPDXRef-org.a-b-lib-1.0");
+    assertThat(writer.spdxIdOf("org.a-b:lib:1.0")).isEqualTo("SPDXRef-org.a-b-lib-1.0-2");
+    assertThat(writer.spdxIdOf("org.a-b:lib:1.0-2")).isEqualTo("SPDXRef-org.a-b-lib-1.0-2-2");
+    assertThat(writer.spdxIdOf("org.a_b:lib:1.0")).as("the same GAV gets the same identifier")
+        .isEqualTo("SPDXRef-org.a-b-lib-1.0");
+  }
+
+  private static Map<String, String> relationship(String element, String type, String related) {
+    return Map.of("spdxElementId", element, "relationshipType", type, "relatedSpdxElement", related);
+  }
+
+  private static ResolvedDependency dependency(String gav) {
+    String[] parts = gav.split(":");
+    ResolvedDependency dependency = mock(ResolvedDependency.class);
+    when(dependency.getName()).thenReturn(gav);
+    when(dependency.getModuleGroup()).thenReturn(parts[0]);
+    when(dependency.getModuleName()).thenReturn(parts[1]);
+    when(dependency.getModuleVersion()).thenReturn(parts[2]);
+    return dependency;
+  }
+
+}
@@ -0,0 +1,57 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import groovy.json.JsonSlurper;
+
+/**
+ * @author Lucas Persson
+ */
+class TaskMetricsTest {
+
+  @TempDir
+  File mReportsDir;
+
+  @Test
+  final void testCountersAndPhases() {
+    TaskMetrics metrics = new TaskMetrics();
+    metrics.increment("pomsResolved", 3);
+    metrics.increment("pomsResolved", 2);
+    metrics.max("parentChainDepth", 2);
+    metrics.max("parentChainDepth", 1);
+    String result = metrics.time("scanDependencies", () -> "scanned");
+    metrics.time("scanDependencies", () -> metrics.addTime("pomParsing", 5_000_000));
+
+    assertThat(result).isEqualTo("scanned");
+    assertThat(metrics.getCounter("pomsResolved")).isEqualTo(5);
+    assertThat(metrics.getCounter("parentChainDepth")).isEqualTo(2);
+    assertThat(metrics.getCounter("unknown")).isZero();
+    assertThat(metrics.getPhaseMillis("pomParsing")).isEqualTo(5);
+    assertThat(metrics.getSummary()).startsWith("total ")
+        .contains("scanDependencies ", "pomParsing 5 ms", "pomsResolved 5", "parentChainDepth 2");
+  }
+
+  @Test
+  final void testWrite() {
+    TaskMetrics metrics = new TaskMetrics();
+    metrics.increment("pomsResolved", 12);
+    metrics.addTime("pomParsing", 7_000_000);
+    File file = new File(mReportsDir, "versionReport" + TaskMetrics.FILE_NAME_SUFFIX);
+
+    metrics.write(file, ":versionReport");
+
+    Map<?, ?> json = (Map<?, ?>) new JsonSlurper().parse(file);
+    assertThat(json.get("formatVersion")).isEqualTo(TaskMetrics.FORMAT_VERSION);
+    assertThat(json.get("task")).isEqualTo(":versionReport");
+    assertThat(json.get("totalMs")).isNotNull();
+    assertThat(json.get("phasesMs")).isEqualTo(Map.of("pomParsing", 7));
+    assertThat(json.get("counters")).isEqualTo(Map.of("pomsResolved", 12));
+  }
+
+}
@@ -0,0 +1,27 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class VersionComparatorTest {
+
+  @Test
+  final void testCompare() {
+    List<String> versions = new ArrayList<>(List.of("1.10", "1.0.1", "1.0", "1.0-rc1", "1.0-dev", "1.0-alpha",
+        "1.0.Final", "1.0-SNAPSHOT", "2.13.2.1", "2.13.2", "31.0.1-jre", "9999.0-empty-to-avoid-conflict-with-guava"));
+    versions.sort(VersionComparator.INSTANCE);
+
+    assertThat(versions).containsExactly("1.0-dev", "1.0-alpha", "1.0-rc1", "1.0-SNAPSHOT", "1.0.Final", "1.0", "1.0.1",
+        "1.10", "2.13.2", "2.13.2.1", "31.0.1-jre", "9999.0-empty-to-avoid-conflict-with-guava");
+    assertThat(VersionComparator.INSTANCE.compare("1.01", "1.1")).isZero();
+    assertThat(VersionComparator.INSTANCE.compare("20220101123456789", "9")).isPositive();
+  }
+
+}
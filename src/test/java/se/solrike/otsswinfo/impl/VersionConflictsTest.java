@@ -0,0 +1,59 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class VersionConflictsTest {
+
+  @Test
+  final void testFind() {
+    List<ArtifactMetadata> dependencies = List.of(new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.30"),
+        new ArtifactMetadata("org.springframework", "spring-core", "5.3.5"),
+        new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.36"),
+        new ArtifactMetadata("com.google.guava", "guava", "31.0.1-jre"),
+        new ArtifactMetadata("org.slf4j", "slf4j-api", "2.0.0-alpha1"),
+        new ArtifactMetadata("com.google.guava", "guava", "23.0"),
+        new ArtifactMetadata("org.example", "guava", "1.0"));
+
+    List<VersionConflicts.Conflict> conflicts = VersionConflicts.find(dependencies);
+
+    assertThat(conflicts).extracting(conflict -> conflict.group + ":" + conflict.name)
+        .as("ordered by name, the same name in another group is another module")
+        .containsExactly("com.google.guava:guava", "org.slf4j:slf4j-api");
+    assertThat(conflicts.get(0).dependencies).extracting(dependency -> dependency.version)
+        .containsExactly("31.0.1-jre", "23.0");
+    assertThat(conflicts.get(1).dependencies).extracting(dependency -> dependency.version)
+        .as("highest version first")
+        .containsExactly("2.0.0-alpha1", "1.7.36", "1.7.30");
+    assertThat(conflicts.get(1).getHighest().version).isEqualTo("2.0.0-alpha1");
+  }
+
+  @Test
+  final void testDuplicateSize() {
+    VersionConflicts.Conflict conflict = VersionConflicts
+        .find(List.of(new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.30"),
+            new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.36"),
+            new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.32")))
+        .get(0);
+
+    assertThat(conflict.getDuplicateSize(Map.of("org.slf4j:slf4j-api:1.7.36", 41_125L,
+        "org.slf4j:slf4j-api:1.7.30", 41_472L, "org.slf4j:slf4j-api:1.7.32", 41_427L)))
+            .as("all but the highest version").isEqualTo(82_899L);
+    assertThat(conflict.getDuplicateSize(Map.of("org.slf4j:slf4j-api:1.7.30", 41_472L)))
+        .as("unknown sizes are not counted").isEqualTo(41_472L);
+  }
+
+  @Test
+  final void testNoConflicts() {
+    assertThat(VersionConflicts.find(List.of(new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.30"),
+        new ArtifactMetadata("org.slf4j", "jul-to-slf4j", "1.7.30")))).isEmpty();
+  }
+
+}
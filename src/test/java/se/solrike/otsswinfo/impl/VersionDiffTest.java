@@ -0,0 +1,80 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Lucas Persson
+ */
+class VersionDiffTest {
+
+  @Test
+  final void testReadReport() {
+    VersionReportIndex index = VersionReportIndex.read(new StringReader("sep=,\n"
+        + "Release 1.0, with a comma\n\n"
+        + "Name,Version,Package Name,Manufacturer URL,Description,License,\n"
+        + "guava,31.0.1-jre,com.google.guava,\"https://github.com/google/guava\",\"Guava, \"\"core\"\"\",\"Apache-2.0\",\n"
+        + "multi-line,1.0,org.example,\"\",\"line 1\nline 2\",\"MIT\",\n"));
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.getModules()).containsExactlyInAnyOrder("com.google.guava:guava", "org.example:multi-line");
+    assertThat(index.contains("com.google.guava", "guava", "31.0.1-jre")).isTrue();
+    assertThat(index.getVersions("org.example:multi-line")).containsEntry("1.0", "MIT");
+  }
+
+  @Test
+  final void testVersionsEqualByComparatorAreKept() {
+    VersionReportIndex previous = VersionReportIndex.read(new StringReader("sep=,\nName,Version,Package Name,License\n"
+        + "lib,1.0,org.example,MIT\n"
+        + "lib,1.00,org.example,Apache-2.0\n"
+        + "lib,0.9,org.example,MIT\n"));
+    VersionReportIndex current = VersionReportIndex.read(new StringReader("sep=,\nName,Version,Package Name,License\n"
+        + "lib,1.00,org.example,Apache-2.0\n"
+        + "lib,0.9,org.example,MIT\n"));
+
+    assertThat(previous.size()).isEqualTo(3);
+    assertThat(previous.getVersions("org.example:lib")).containsExactly(entry("0.9", "MIT"), entry("1.0", "MIT"),
+        entry("1.00", "Apache-2.0"));
+    assertThat(current.contains("org.example", "lib", "1.00")).isTrue();
+    assertThat(current.contains("org.example", "lib", "1.0")).isFalse();
+    assertThat(VersionDiff.diff(previous, current))
+        .extracting(e -> e.change, e -> e.previousVersion, e -> e.version, e -> e.previousLicense)
+        .containsExactly(tuple(VersionDiff.Change.REMOVED, "1.0", null, "MIT"));
+  }
+
+  @Test
+  final void testDiff() {
+    VersionReportIndex previous = VersionReportIndex.read(new StringReader("sep=\t\n"
+        + "Name\tVersion\tPackage Name\tManufacturer URL\tDescription\tLicense\t\n"
+        + "guava\t30.0-jre\tcom.google.guava\t\"\"\t\"\"\t\"Apache-2.0\"\t\n"
+        + "slf4j-api\t1.7.36\torg.slf4j\t\"\"\t\"\"\t\"MIT\"\t\n"
+        + "jackson-core\t2.13.2\tcom.fasterxml.jackson.core\t\"\"\t\"\"\t\"Apache-2.0\"\t\n"
+        + "removed\t1.0\torg.example\t\"\"\t\"\"\t\"MIT\"\t\n"
+        + "relicensed\t1.0\torg.example\t\"\"\t\"\"\t\"MIT\"\t\n"));
+    VersionReportIndex current = VersionReportIndex.read(new StringReader("sep=,\n"
+        + "Name,Version,Package Name,Manufacturer URL,Description,License,New to Release\n"
+        + "guava,31.0.1-jre,com.google.guava,\"\",\"\",\"Apache-2.0\",Yes\n"
+        + "slf4j-api,1.7.30,org.slf4j,\"\",\"\",\"MIT\",Yes\n"
+        + "jackson-core,2.13.2,com.fasterxml.jackson.core,\"\",\"\",\"Apache-2.0\",No\n"
+        + "added,2.0,org.example,\"\",\"\",\"EPL-2.0\",Yes\n"
+        + "relicensed,1.0,org.example,\"\",\"\",\"GPL-2.0\",No\n"));
+
+    List<VersionDiff.Entry> entries = VersionDiff.diff(previous, current);
+
+    assertThat(entries).extracting(e -> e.name, e -> e.change, e -> e.previousVersion, e -> e.version)
+        .containsExactly(tuple("added", VersionDiff.Change.ADDED, null, "2.0"),
+            tuple("guava", VersionDiff.Change.UPGRADED, "30.0-jre", "31.0.1-jre"),
+            tuple("relicensed", VersionDiff.Change.LICENSE_CHANGED, "1.0", "1.0"),
+            tuple("removed", VersionDiff.Change.REMOVED, "1.0", null),
+            tuple("slf4j-api", VersionDiff.Change.DOWNGRADED, "1.7.36", "1.7.30"));
+    assertThat(entries).filteredOn(VersionDiff.Entry::isLicenseChanged).extracting(e -> e.name)
+        .containsExactly("relicensed");
+  }
+
+}
@@ -0,0 +1,67 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author Lucas Persson
+ */
+class VersionReportStateTest {
+
+  @TempDir
+  File mReportsDir;
+
+  @Test
+  final void testSaveAndLoad() {
+    ArtifactMetadata metadata = new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.30");
+    metadata.license = "MIT License";
+    metadata.licenseUrl = "http://www.opensource.org/licenses/mit-license.php";
+    metadata.url = "http://www.slf4j.org";
+    metadata.description = "The slf4j API";
+
+    VersionReportState.save(mReportsDir, List.of(metadata));
+    Map<String, PomMetadata> state = VersionReportState.load(mReportsDir);
+
+    assertThat(state).containsOnlyKeys("org.slf4j:slf4j-api:1.7.30");
+    PomMetadata pomMetadata = state.get("org.slf4j:slf4j-api:1.7.30");
+    assertThat(pomMetadata.license).isEqualTo("MIT License");
+    assertThat(pomMetadata.licenseUrl).isEqualTo("http://www.opensource.org/licenses/mit-license.php");
+    assertThat(pomMetadata.url).isEqualTo("http://www.slf4j.org");
+    assertThat(pomMetadata.description).isEqualTo("The slf4j API");
+  }
+
+  @Test
+  final void testLoadWithoutPreviousState() {
+    assertThat(VersionReportState.load(mReportsDir)).isEmpty();
+  }
+
+  @Test
+  final void testCorruptStateIsEmpty() throws IOException {
+    File stateFile = new File(mReportsDir, VersionReportState.FILE_NAME);
+    for (String corrupt : new String[] { "{\"version\":1,\"dependencies\":{\"org.slf4j:slf4j-api:1.7.30\":{", "[]",
+        "{\"version\":1,\"dependencies\":[]}" }) {
+      Files.write(stateFile.toPath(), corrupt.getBytes(StandardCharsets.UTF_8));
+
+      assertThat(VersionReportState.load(mReportsDir)).as(corrupt).isEmpty();
+    }
+  }
+
+  @Test
+  final void testSaveReplacesTheState() {
+    VersionReportState.save(mReportsDir, List.of(new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.30")));
+    VersionReportState.save(mReportsDir, List.of(new ArtifactMetadata("org.slf4j", "slf4j-api", "1.7.36")));
+
+    assertThat(VersionReportState.load(mReportsDir)).containsOnlyKeys("org.slf4j:slf4j-api:1.7.36");
+    assertThat(mReportsDir.list()).as("no temp files are left").containsExactly(VersionReportState.FILE_NAME);
+  }
+
+}
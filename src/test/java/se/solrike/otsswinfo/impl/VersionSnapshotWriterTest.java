@@ -0,0 +1,125 @@
+package se.solrike.otsswinfo.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gradle.api.artifacts.ResolvedDependency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import groovy.json.JsonSlurper;
+
+/**
+ * @author Lucas Persson
+ */
+class VersionSnapshotWriterTest {
+
+  @TempDir
+  File mReportsDir;
+
+  private ArtifactMetadata mSpringAop;
+  private ArtifactMetadata mSpringCore;
+
+  @BeforeEach
+  final void setup() {
+    // project -> spring-context -> spring-aop -> spring-core and project -> spring-core
+    ResolvedDependency root = dependency("se.solrike:app:1.0.0");
+    ResolvedDependency context = dependency("org.springframework:spring-context:5.3.19");
+    ResolvedDependency aop = dependency("org.springframework:spring-aop:5.3.19");
+    ResolvedDependency core = dependency("org.springframework:spring-core:5.3.19");
+    when(root.getChildren()).thenReturn(Set.of(context, core));
+    when(context.getParents()).thenReturn(Set.of(root));
+    when(context.getChildren()).thenReturn(Set.of(aop));
+    when(aop.getParents()).thenReturn(Set.of(context));
+    when(aop.getChildren()).thenReturn(Set.of(core));
+    when(core.getParents()).thenReturn(Set.of(aop, root));
+    DependencyGraph graph = DependencyGraph.of(root.getChildren(), new StringPool());
+
+    mSpringAop = new ArtifactMetadata(graph, graph.indexOf(aop.getName()));
+    mSpringAop.license = "Apache License, Version 2.0";
+    mSpringAop.description = "Spring \"AOP\"";
+    mSpringAop.latestVersion = "5.3.20";
+    mSpringCore = new ArtifactMetadata(graph, graph.indexOf(core.getName()));
+  }
+
+  @Test
+  final void testJson() throws IOException {
+    StringWriter json = new StringWriter();
+
+    VersionSnapshotWriter.write(new JsonSnapshotEncoder(json), List.of("Release 1"), List.of(mSpringAop, mSpringCore));
+
+    Map<?, ?> snapshot = (Map<?, ?>) new JsonSlurper().parseText(json.toString());
+    assertThat(snapshot.get("formatVersion")).isEqualTo(VersionSnapshotWriter.FORMAT_VERSION);
+    assertThat(snapshot.get("extraVersionInfo")).isEqualTo(List.of("Release 1"));
+    List<?> dependencies = (List<?>) snapshot.get("dependencies");
+    assertThat(dependencies).hasSize(2);
+    Map<?, ?> aop = (Map<?, ?>) dependencies.get(0);
+    assertThat(aop.get("artifactName")).isEqualTo("org.springframework:spring-aop:5.3.19");
+    assertThat(aop.get("group")).isEqualTo("org.springframework");
+    assertThat(aop.get("name")).isEqualTo("spring-aop");
+    assertThat(aop.get("version")).isEqualTo("5.3.19");
+    assertThat(aop.get("license")).isEqualTo("Apache License, Version 2.0");
+    assertThat(aop.get("description")).isEqualTo("Spring \"AOP\"");
+    assertThat(aop.get("latestVersion")).isEqualTo("5.3.20");
+    assertThat(aop.containsKey("url")).isTrue();
+    assertThat(aop.get("url")).isNull();
+    assertThat(aop.get("dependents")).isEqualTo(List.of("org.springframework:spring-context:5.3.19"));
+    assertThat(aop.get("path"))
+        .isEqualTo(List.of("org.springframework:spring-context:5.3.19", "org.springframework:spring-aop:5.3.19"));
+    Map<?, ?> core = (Map<?, ?>) dependencies.get(1);
+    assertThat(core.get("path")).as("the shortest path").isEqualTo(List.of("org.springframework:spring-core:5.3.19"));
+    assertThat(core.get("dependents")).isEqualTo(List.of("org.springframework:spring-aop:5.3.19"));
+  }
+
+  @Test
+  final void testCbor() throws IOException {
+    ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+    try (CborSnapshotEncoder encoder = new CborSnapshotEncoder(cbor)) {
+      encoder.beginObject();
+      encoder.name("a");
+      encoder.value(1000);
+      encoder.name("b");
+      encoder.beginArray();
+      encoder.value(true);
+      encoder.value((String) null);
+      encoder.value(-1);
+      encoder.endArray();
+      encoder.endObject();
+    }
+
+    assertThat(cbor.toByteArray()).containsExactly(0xbf, 0x61, 'a', 0x19, 0x03, 0xe8, 0x61, 'b', 0x9f, 0xf5, 0xf6,
+        0x20, 0xff, 0xff);
+  }
+
+  @Test
+  final void testWriteFiles() {
+    for (String format : VersionSnapshotWriter.FORMATS) {
+      File file = new File(mReportsDir, VersionSnapshotWriter.fileName("JavaVersionAndLicenseReport.csv", format));
+      VersionSnapshotWriter.write(file, format, List.of(), List.of(mSpringAop, mSpringCore));
+      assertThat(file).isNotEmpty();
+    }
+    assertThat(new File(mReportsDir, "JavaVersionAndLicenseReport.json")).exists();
+    assertThat(new File(mReportsDir, "JavaVersionAndLicenseReport.cbor")).exists();
+  }
+
+  private static ResolvedDependency dependency(String gav) {
+    String[] parts = gav.split(":");
+    ResolvedDependency dependency = mock(ResolvedDependency.class);
+    when(dependency.getName()).thenReturn(gav);
+    when(dependency.getModuleGroup()).thenReturn(parts[0]);
+    when(dependency.getModuleName()).thenReturn(parts[1]);
+    when(dependency.getModuleVersion()).thenReturn(parts[2]);
+    return dependency;
+  }
+
+}